@@ -0,0 +1,89 @@
+package com.distrischool.auth.client;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuração do {@link LocalTokenValidator}.
+ *
+ * Exemplo para um serviço que valida tokens do Auth0 e tokens enriquecidos:
+ * <pre>
+ * AuthClientConfig.builder()
+ *     .issuer("https://distrischool.us.auth0.com/")
+ *     .audience("https://api.distrischool.com")
+ *     .jwksUrl("https://distrischool.us.auth0.com/.well-known/jwks.json")
+ *     .serviceName("student-service")
+ *     .build();
+ * </pre>
+ */
+@Value
+@Builder
+public class AuthClientConfig {
+
+    /**
+     * Issuer esperado (claim iss), ex.: https://{domain}/
+     */
+    String issuer;
+
+    /**
+     * Audience esperada (claim aud)
+     */
+    String audience;
+
+    /**
+     * Endpoints JWKS com as chaves públicas (RSA e EC) aceitas
+     */
+    @Singular
+    List<String> jwksUrls;
+
+    /**
+     * Secrets HMAC por kid, apenas para serviços que compartilham o app.jwt.secret
+     * do serviço de autenticação (tokens enriquecidos HS256)
+     */
+    @Singular
+    Map<String, String> hmacSecrets;
+
+    /**
+     * Nome do serviço, enviado nas chamadas gRPC de fallback
+     */
+    @Builder.Default
+    String serviceName = "auth-client";
+
+    /**
+     * Refresh periódico do JWKS em background
+     */
+    @Builder.Default
+    Duration refreshInterval = Duration.ofMinutes(10);
+
+    /**
+     * Intervalo mínimo entre buscas disparadas por kid desconhecido
+     */
+    @Builder.Default
+    Duration minRefreshInterval = Duration.ofSeconds(10);
+
+    @Builder.Default
+    Duration fetchTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Deadline das chamadas gRPC de fallback
+     */
+    @Builder.Default
+    Duration grpcDeadline = Duration.ofSeconds(2);
+
+    /**
+     * Tamanho máximo do cache de tokens validados
+     */
+    @Builder.Default
+    long cacheMaxSize = 100_000;
+
+    /**
+     * TTL máximo de um token no cache (cada entrada expira no exp do token)
+     */
+    @Builder.Default
+    Duration cacheMaxTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,61 @@
+package com.distrischool.auth.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cópia da tabela de bits de roles e permissions do serviço de autenticação
+ * (com.distrischool.template.security.AuthorityMasks), usada para decodificar os claims
+ * {@code rmask} e {@code pmask} dos tokens enriquecidos no formato compacto ({@code ver = 2}).
+ *
+ * As tabelas só crescem no final; uma mudança incompatível no serviço gera um novo formato,
+ * e tokens com versão desconhecida são validados remotamente. Tokens com bits além do fim
+ * destas tabelas (roles ou permissions adicionadas no serviço depois desta versão da
+ * biblioteca) também são validados remotamente, em vez de perder as authorities desconhecidas.
+ */
+final class AuthorityMasks {
+
+    static final int FORMAT_VERSION = 2;
+
+    static final String VERSION_CLAIM = "ver";
+    static final String ROLE_MASK_CLAIM = "rmask";
+    static final String PERMISSION_MASK_CLAIM = "pmask";
+
+    /**
+     * Roles na ordem dos bits (ordinal de UserRole no serviço)
+     */
+    static final List<String> ROLES = List.of("ADMIN", "TEACHER", "STUDENT", "PARENT");
+
+    /**
+     * Permissions na ordem dos bits
+     */
+    static final List<String> PERMISSIONS = List.of(
+        "read:teachers", "write:teachers", "delete:teachers",
+        "read:students", "write:students", "delete:students",
+        "read:classes", "write:classes", "delete:classes",
+        "read:grades", "write:grades", "delete:grades",
+        "read:attendance", "write:attendance",
+        "read:reports", "write:reports",
+        "read:users", "write:users", "delete:users"
+    );
+
+    private AuthorityMasks() {
+    }
+
+    /**
+     * Verifica se a máscara possui bits sem nome nesta versão da tabela
+     */
+    static boolean hasUnknownBits(long mask, List<String> table) {
+        return table.size() < Long.SIZE && (mask >>> table.size()) != 0;
+    }
+
+    static List<String> decode(long mask, List<String> table) {
+        List<String> names = new ArrayList<>(Long.bitCount(mask));
+        for (int bit = 0; bit < table.size(); bit++) {
+            if ((mask & (1L << bit)) != 0) {
+                names.add(table.get(bit));
+            }
+        }
+        return List.copyOf(names);
+    }
+}
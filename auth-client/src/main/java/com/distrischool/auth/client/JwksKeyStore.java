@@ -0,0 +1,160 @@
+package com.distrischool.auth.client;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.UrlJwkProvider;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mantém um {@link JWTVerifier} pronto por kid, construído a partir dos JWKS configurados
+ * (RSA → RS256, EC P-256 → ES256) e dos secrets HMAC opcionais.
+ *
+ * Mesma estratégia do Auth0JwtValidator do serviço de autenticação: snapshot imutável
+ * substituído a cada refresh em background, refresh único compartilhado (single-flight)
+ * para kids desconhecidos, limitado a um por minRefreshInterval. Falhas de refresh
+ * mantêm as chaves atuais.
+ */
+@Slf4j
+class JwksKeyStore implements AutoCloseable {
+
+    private final AuthClientConfig config;
+    private final List<UrlJwkProvider> providers = new ArrayList<>();
+    private final Map<String, JWTVerifier> hmacVerifiers = new HashMap<>();
+    private final ScheduledExecutorService refreshExecutor;
+    private final long minRefreshIntervalNanos;
+
+    private final AtomicReference<CompletableFuture<Void>> inFlightRefresh = new AtomicReference<>();
+    private volatile Map<String, JWTVerifier> verifiers;
+    private volatile long nextRefreshAllowedNanos = System.nanoTime();
+
+    JwksKeyStore(AuthClientConfig config) {
+        this.config = config;
+        this.minRefreshIntervalNanos = config.getMinRefreshInterval().toNanos();
+
+        int timeoutMillis = (int) config.getFetchTimeout().toMillis();
+        for (String url : config.getJwksUrls()) {
+            try {
+                providers.add(new UrlJwkProvider(URI.create(url).toURL(), timeoutMillis, timeoutMillis));
+            } catch (MalformedURLException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("URL JWKS inválida: " + url, e);
+            }
+        }
+        config.getHmacSecrets().forEach((kid, secret) ->
+            hmacVerifiers.put(kid, buildVerifier(Algorithm.HMAC256(secret))));
+        this.verifiers = Map.copyOf(hmacVerifiers);
+
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-client-jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long refreshMillis = config.getRefreshInterval().toMillis();
+        refreshExecutor.scheduleWithFixedDelay(this::refresh, 0, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Verifier do kid, ou null se o kid ainda não é conhecido
+     */
+    JWTVerifier find(String kid) {
+        return kid != null ? verifiers.get(kid) : null;
+    }
+
+    /**
+     * Solicita um refresh (sem bloquear), respeitando o intervalo mínimo entre buscas
+     */
+    void requestRefresh() {
+        if (inFlightRefresh.get() == null && System.nanoTime() - nextRefreshAllowedNanos >= 0) {
+            refresh();
+        }
+    }
+
+    private CompletableFuture<Void> refresh() {
+        while (true) {
+            CompletableFuture<Void> current = inFlightRefresh.get();
+            if (current != null) {
+                return current;
+            }
+            CompletableFuture<Void> refresh = new CompletableFuture<>();
+            if (inFlightRefresh.compareAndSet(null, refresh)) {
+                try {
+                    refreshExecutor.execute(() -> load(refresh));
+                } catch (RuntimeException e) {
+                    inFlightRefresh.compareAndSet(refresh, null);
+                    refresh.completeExceptionally(e);
+                }
+                return refresh;
+            }
+        }
+    }
+
+    private void load(CompletableFuture<Void> refresh) {
+        try {
+            Map<String, JWTVerifier> loaded = new HashMap<>(hmacVerifiers);
+            for (UrlJwkProvider provider : providers) {
+                for (Jwk jwk : provider.getAll()) {
+                    Algorithm algorithm = toAlgorithm(jwk);
+                    if (algorithm != null) {
+                        loaded.put(jwk.getId(), buildVerifier(algorithm));
+                    }
+                }
+            }
+            this.verifiers = Map.copyOf(loaded);
+            log.info("Chaves de validação carregadas: kids={}", loaded.keySet());
+            refresh.complete(null);
+        } catch (Exception e) {
+            log.warn("Falha ao carregar JWKS, mantendo chaves atuais: {}", e.getMessage());
+            refresh.completeExceptionally(e);
+        } finally {
+            nextRefreshAllowedNanos = System.nanoTime() + minRefreshIntervalNanos;
+            inFlightRefresh.compareAndSet(refresh, null);
+        }
+    }
+
+    private static Algorithm toAlgorithm(Jwk jwk) {
+        if (jwk.getId() == null || (jwk.getUsage() != null && !"sig".equals(jwk.getUsage()))) {
+            return null;
+        }
+        try {
+            return switch (jwk.getType()) {
+                case "RSA" -> Algorithm.RSA256((RSAPublicKey) jwk.getPublicKey(), null);
+                case "EC" -> Algorithm.ECDSA256((ECPublicKey) jwk.getPublicKey(), null);
+                default -> null;
+            };
+        } catch (Exception e) {
+            log.warn("Chave JWKS ignorada: kid={}, erro={}", jwk.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private JWTVerifier buildVerifier(Algorithm algorithm) {
+        var verification = JWT.require(algorithm);
+        if (config.getIssuer() != null) {
+            verification.withIssuer(config.getIssuer());
+        }
+        if (config.getAudience() != null) {
+            verification.withAudience(config.getAudience());
+        }
+        return verification.build();
+    }
+
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,278 @@
+package com.distrischool.auth.client;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.distrischool.template.grpc.AuthServiceGrpc;
+import com.distrischool.template.grpc.ValidateTokenRequest;
+import com.distrischool.template.grpc.ValidateTokenResponse;
+import com.distrischool.template.security.TokenHashes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Channel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Valida tokens JWT do DistriSchool localmente, no processo do serviço que recebe a requisição.
+ *
+ * A assinatura é verificada com as chaves públicas em cache ({@link JwksKeyStore}), então a
+ * validação escala com o número de instâncias dos serviços e não com os pods de autenticação.
+ * O serviço de autenticação só é chamado (gRPC ValidateAnyToken, que aceita tokens do Auth0 e
+ * tokens enriquecidos e aplica a lista de revogação e a época de autorização do usuário) quando:
+ * - o kid do token ainda não é conhecido (rotação de chaves); um refresh do JWKS é disparado
+ *   em background e o token atual é validado remotamente
+ * - o token usa roles ou permissions que esta versão da biblioteca não conhece
+ *   ({@link AuthorityMasks}: versão de formato ou bits de máscara desconhecidos)
+ * - o chamador exige verificação de revogação ({@link #validateWithRevocationCheck(String)})
+ *
+ * Resultados válidos ficam em cache (chave = SHA-256 do token) até o exp do token.
+ */
+@Slf4j
+public class LocalTokenValidator implements AutoCloseable {
+
+    private static final String ROLES_NAMESPACE = "https://distrischool.com/roles";
+
+    private final AuthClientConfig config;
+    private final JwksKeyStore keyStore;
+    private final AuthServiceGrpc.AuthServiceFutureStub authService;
+    private final Cache<String, TokenValidation> cache;
+
+    /**
+     * @param config Configuração do cliente
+     * @param authServiceChannel Canal gRPC para o serviço de autenticação (null desabilita o fallback)
+     */
+    public LocalTokenValidator(AuthClientConfig config, Channel authServiceChannel) {
+        this.config = config;
+        this.keyStore = new JwksKeyStore(config);
+        this.authService = authServiceChannel != null ? AuthServiceGrpc.newFutureStub(authServiceChannel) : null;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(config.getCacheMaxSize())
+            .expireAfter(new TokenExpiry(config.getCacheMaxTtl()))
+            .build();
+    }
+
+    /**
+     * Valida o token localmente; usa o serviço de autenticação apenas para kids desconhecidos.
+     * O future retornado já está completo sempre que a validação é local.
+     *
+     * @param token O token JWT
+     * @return Future com o resultado da validação (nunca completa com erro)
+     */
+    public CompletableFuture<TokenValidation> validate(String token) {
+        String cacheKey = TokenHashes.sha256(token);
+        TokenValidation cached = cache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        DecodedJWT jwt;
+        try {
+            jwt = JWT.decode(token);
+        } catch (JWTDecodeException e) {
+            return CompletableFuture.completedFuture(TokenValidation.invalid(TokenValidation.Source.LOCAL, "Token malformado"));
+        }
+
+        JWTVerifier verifier = keyStore.find(jwt.getKeyId());
+        if (verifier == null) {
+            log.debug("Kid desconhecido {}, validando via serviço de autenticação", jwt.getKeyId());
+            keyStore.requestRefresh();
+            return validateRemotely(token, cacheKey);
+        }
+
+        Integer formatVersion = jwt.getClaim(AuthorityMasks.VERSION_CLAIM).asInt();
+        if (formatVersion != null && formatVersion > AuthorityMasks.FORMAT_VERSION) {
+            log.debug("Formato de claims desconhecido (ver={}), validando via serviço de autenticação", formatVersion);
+            return validateRemotely(token, cacheKey);
+        }
+
+        DecodedJWT verified;
+        try {
+            verified = verifier.verify(jwt);
+        } catch (JWTVerificationException e) {
+            log.debug("Token inválido: {}", e.getMessage());
+            return CompletableFuture.completedFuture(TokenValidation.invalid(TokenValidation.Source.LOCAL, e.getMessage()));
+        }
+
+        if (hasUnknownAuthorities(verified)) {
+            log.debug("Roles ou permissions desconhecidas nas máscaras do token, validando via serviço de autenticação");
+            return validateRemotely(token, cacheKey);
+        }
+
+        TokenValidation validation = toValidation(verified);
+        cache.put(cacheKey, validation);
+        return CompletableFuture.completedFuture(validation);
+    }
+
+    /**
+     * Valida o token no serviço de autenticação, que também verifica revogação
+     * (usuário desativado, logout). Use em operações sensíveis.
+     *
+     * @param token O token JWT
+     * @return Future com o resultado da validação (nunca completa com erro)
+     */
+    public CompletableFuture<TokenValidation> validateWithRevocationCheck(String token) {
+        return validateRemotely(token, null);
+    }
+
+    private CompletableFuture<TokenValidation> validateRemotely(String token, String cacheKey) {
+        if (authService == null) {
+            return CompletableFuture.completedFuture(
+                TokenValidation.invalid(TokenValidation.Source.LOCAL, "Chave de assinatura desconhecida"));
+        }
+
+        ValidateTokenRequest request = ValidateTokenRequest.newBuilder()
+            .setToken(token)
+            .setServiceName(config.getServiceName())
+            .build();
+
+        return toCompletableFuture(authService
+                .withDeadlineAfter(config.getGrpcDeadline().toMillis(), TimeUnit.MILLISECONDS)
+                .validateAnyToken(request))
+            .thenApply(LocalTokenValidator::toValidation)
+            .whenComplete((validation, ex) -> {
+                if (cacheKey != null && validation != null && validation.isValid()) {
+                    cache.put(cacheKey, validation);
+                }
+            })
+            .exceptionally(e -> {
+                log.error("Erro gRPC ao validar token: {}", e.getMessage());
+                return TokenValidation.invalid(TokenValidation.Source.REMOTE,
+                    "Erro de comunicação com serviço de autenticação: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Máscaras com bits além das tabelas conhecidas: decodificá-las localmente descartaria
+     * authorities do token
+     */
+    private static boolean hasUnknownAuthorities(DecodedJWT jwt) {
+        Long roleMask = jwt.getClaim(AuthorityMasks.ROLE_MASK_CLAIM).asLong();
+        Long permissionMask = jwt.getClaim(AuthorityMasks.PERMISSION_MASK_CLAIM).asLong();
+        return (roleMask != null && AuthorityMasks.hasUnknownBits(roleMask, AuthorityMasks.ROLES))
+            || (permissionMask != null && AuthorityMasks.hasUnknownBits(permissionMask, AuthorityMasks.PERMISSIONS));
+    }
+
+    private static TokenValidation toValidation(DecodedJWT jwt) {
+        List<String> roles;
+        List<String> permissions;
+        Long roleMask = jwt.getClaim(AuthorityMasks.ROLE_MASK_CLAIM).asLong();
+        Long permissionMask = jwt.getClaim(AuthorityMasks.PERMISSION_MASK_CLAIM).asLong();
+        if (roleMask != null && permissionMask != null) {
+            // Formato compacto dos tokens enriquecidos: roles e permissions como máscaras de bits
+            roles = AuthorityMasks.decode(roleMask, AuthorityMasks.ROLES);
+            permissions = AuthorityMasks.decode(permissionMask, AuthorityMasks.PERMISSIONS);
+        } else {
+            roles = getRoles(jwt);
+            List<String> permissionClaim = jwt.getClaim("permissions").asList(String.class);
+            permissions = permissionClaim != null ? List.copyOf(permissionClaim) : List.of();
+        }
+        return TokenValidation.builder()
+            .valid(true)
+            .source(TokenValidation.Source.LOCAL)
+            .subject(jwt.getSubject())
+            .email(jwt.getClaim("email").asString())
+            .name(jwt.getClaim("name").asString())
+            .roles(roles)
+            .permissions(permissions)
+            .expiresAt(jwt.getExpiresAtAsInstant())
+            .build();
+    }
+
+    private static TokenValidation toValidation(ValidateTokenResponse response) {
+        if (!response.getValid()) {
+            return TokenValidation.invalid(TokenValidation.Source.REMOTE, response.getErrorMessage());
+        }
+        return TokenValidation.builder()
+            .valid(true)
+            .source(TokenValidation.Source.REMOTE)
+            .subject(response.getUserId())
+            .email(response.getEmail().isEmpty() ? null : response.getEmail())
+            .roles(List.copyOf(response.getRolesList()))
+            .permissions(List.copyOf(response.getPermissionsList()))
+            .expiresAt(response.getExpiresAt() > 0 ? Instant.ofEpochMilli(response.getExpiresAt()) : null)
+            .build();
+    }
+
+    /**
+     * Mesmos locais de roles aceitos pelo Auth0JwtValidator do serviço de autenticação
+     */
+    @SuppressWarnings("unchecked")
+    private static List<String> getRoles(DecodedJWT jwt) {
+        List<String> roles = jwt.getClaim(ROLES_NAMESPACE).asList(String.class);
+        if (roles == null || roles.isEmpty()) {
+            roles = jwt.getClaim("roles").asList(String.class);
+        }
+        if (roles == null || roles.isEmpty()) {
+            Map<String, Object> appMetadata = jwt.getClaim("app_metadata").asMap();
+            roles = appMetadata != null ? (List<String>) appMetadata.get("roles") : null;
+        }
+        return roles != null ? List.copyOf(roles) : List.of();
+    }
+
+    private static <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> listenable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Futures.addCallback(listenable, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    @Override
+    public void close() {
+        keyStore.close();
+    }
+
+    /**
+     * Expira cada entrada no exp do token, limitado pelo TTL máximo
+     */
+    private static final class TokenExpiry implements Expiry<String, TokenValidation> {
+
+        private final long maxTtlNanos;
+
+        private TokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, TokenValidation value, long currentTime) {
+            Instant expiresAt = value.getExpiresAt();
+            if (expiresAt == null) {
+                return maxTtlNanos;
+            }
+            long remainingMillis = expiresAt.toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, Math.min(TimeUnit.MILLISECONDS.toNanos(remainingMillis), maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenValidation value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenValidation value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.distrischool.auth.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Resultado imutável da validação de um token
+ */
+@Value
+@Builder
+public class TokenValidation {
+
+    /**
+     * Onde o token foi validado
+     */
+    public enum Source {
+        /** Verificado localmente com as chaves em cache */
+        LOCAL,
+        /** Verificado pelo serviço de autenticação via gRPC */
+        REMOTE
+    }
+
+    boolean valid;
+
+    Source source;
+
+    /**
+     * Auth0 ID (sub claim)
+     */
+    String subject;
+
+    String email;
+
+    String name;
+
+    @Builder.Default
+    List<String> roles = List.of();
+
+    @Builder.Default
+    List<String> permissions = List.of();
+
+    Instant expiresAt;
+
+    String errorMessage;
+
+    static TokenValidation invalid(Source source, String errorMessage) {
+        return TokenValidation.builder()
+            .valid(false)
+            .source(source)
+            .errorMessage(errorMessage)
+            .build();
+    }
+}
@@ -0,0 +1,276 @@
+package com.distrischool.auth.client;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.distrischool.template.grpc.AuthServiceGrpc;
+import com.distrischool.template.grpc.ValidateTokenRequest;
+import com.distrischool.template.grpc.ValidateTokenResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalTokenValidatorTest {
+
+    private static final String ISSUER = "https://auth.distrischool.test/";
+    private static final String AUDIENCE = "https://api.distrischool.test";
+    private static final String KID = "hs-1";
+    private static final String SECRET = "segredo-de-teste-com-tamanho-suficiente";
+
+    private final List<String> validateAnyTokenCalls = new CopyOnWriteArrayList<>();
+    private final List<String> validateTokenCalls = new CopyOnWriteArrayList<>();
+
+    private volatile String revoked;
+    private volatile boolean unavailable;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+            .directExecutor()
+            .addService(new FakeAuthService())
+            .build()
+            .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void validatesCompactEnhancedTokenLocally() {
+        // rmask 0b101 = ADMIN + STUDENT; pmask 0b101 = read:teachers + delete:teachers
+        String token = enhancedToken(KID, 0b101, 0b101L);
+
+        try (LocalTokenValidator validator = new LocalTokenValidator(config(), channel)) {
+            TokenValidation result = validator.validate(token).join();
+
+            assertTrue(result.isValid());
+            assertEquals(TokenValidation.Source.LOCAL, result.getSource());
+            assertEquals("auth0|123", result.getSubject());
+            assertEquals(List.of("ADMIN", "STUDENT"), result.getRoles());
+            assertEquals(List.of("read:teachers", "delete:teachers"), result.getPermissions());
+            assertTrue(validateAnyTokenCalls.isEmpty());
+        }
+    }
+
+    @Test
+    void unknownKidIsValidatedWithValidateAnyToken() {
+        String token = enhancedToken("outro-kid", 0b1, 0b1L);
+
+        try (LocalTokenValidator validator = new LocalTokenValidator(config(), channel)) {
+            TokenValidation result = validator.validate(token).join();
+
+            assertTrue(result.isValid());
+            assertEquals(TokenValidation.Source.REMOTE, result.getSource());
+            assertEquals(List.of("read:users"), result.getPermissions());
+            assertEquals(List.of(token), validateAnyTokenCalls);
+            assertTrue(validateTokenCalls.isEmpty());
+
+            // Resultado remoto válido fica em cache
+            validator.validate(token).join();
+            assertEquals(1, validateAnyTokenCalls.size());
+        }
+    }
+
+    @Test
+    void unknownPermissionBitsAreValidatedRemotely() {
+        // Bit logo após a última permission conhecida (adicionada no serviço depois desta versão)
+        long unknownBit = 1L << AuthorityMasks.PERMISSIONS.size();
+        String token = enhancedToken(KID, 0b1, 0b1L | unknownBit);
+
+        try (LocalTokenValidator validator = new LocalTokenValidator(config(), channel)) {
+            TokenValidation result = validator.validate(token).join();
+
+            assertTrue(result.isValid());
+            assertEquals(TokenValidation.Source.REMOTE, result.getSource());
+            assertEquals(List.of(token), validateAnyTokenCalls);
+        }
+    }
+
+    @Test
+    void unknownRoleBitsAreValidatedRemotely() {
+        String token = enhancedToken(KID, 1 << AuthorityMasks.ROLES.size(), 0b1L);
+
+        try (LocalTokenValidator validator = new LocalTokenValidator(config(), channel)) {
+            TokenValidation result = validator.validate(token).join();
+
+            assertEquals(TokenValidation.Source.REMOTE, result.getSource());
+            assertEquals(List.of(token), validateAnyTokenCalls);
+        }
+    }
+
+    @Test
+    void unknownBitsWithInvalidSignatureAreRejectedLocally() {
+        String token = JWT.create()
+            .withKeyId(KID)
+            .withIssuer(ISSUER)
+            .withAudience(AUDIENCE)
+            .withSubject("auth0|123")
+            .withClaim(AuthorityMasks.ROLE_MASK_CLAIM, 0b1)
+            .withClaim(AuthorityMasks.PERMISSION_MASK_CLAIM, 1L << AuthorityMasks.PERMISSIONS.size())
+            .withExpiresAt(Instant.now().plusSeconds(300))
+            .sign(Algorithm.HMAC256("outro-segredo-com-tamanho-suficiente"));
+
+        try (LocalTokenValidator validator = new LocalTokenValidator(config(), channel)) {
+            TokenValidation result = validator.validate(token).join();
+
+            assertFalse(result.isValid());
+            assertTrue(validateAnyTokenCalls.isEmpty());
+        }
+    }
+
+    @Test
+    void revocationCheckAlwaysCallsAuthService() {
+        String token = enhancedToken(KID, 0b1, 0b1L);
+
+        try (LocalTokenValidator validator = new LocalTokenValidator(config(), channel)) {
+            validator.validate(token).join();
+            TokenValidation result = validator.validateWithRevocationCheck(token).join();
+
+            assertTrue(result.isValid());
+            assertEquals(TokenValidation.Source.REMOTE, result.getSource());
+            assertEquals(List.of(token), validateAnyTokenCalls);
+        }
+    }
+
+    @Test
+    void remoteRejectionIsReturnedAndNotCached() {
+        String token = enhancedToken(KID, 0b1, 0b1L);
+        revoked = token;
+
+        try (LocalTokenValidator validator = new LocalTokenValidator(config(), channel)) {
+            TokenValidation result = validator.validateWithRevocationCheck(token).join();
+
+            assertFalse(result.isValid());
+            assertEquals("Token revogado", result.getErrorMessage());
+        }
+    }
+
+    @Test
+    void unknownKidWithoutChannelIsInvalid() {
+        String token = enhancedToken("outro-kid", 0b1, 0b1L);
+
+        try (LocalTokenValidator validator = new LocalTokenValidator(config(), null)) {
+            TokenValidation result = validator.validate(token).join();
+
+            assertFalse(result.isValid());
+            assertEquals(TokenValidation.Source.LOCAL, result.getSource());
+        }
+    }
+
+    @Test
+    void grpcFailureIsReturnedAsInvalid() {
+        String token = enhancedToken("outro-kid", 0b1, 0b1L);
+        unavailable = true;
+
+        try (LocalTokenValidator validator = new LocalTokenValidator(config(), channel)) {
+            TokenValidation result = validator.validate(token).join();
+
+            assertFalse(result.isValid());
+            assertEquals(TokenValidation.Source.REMOTE, result.getSource());
+        }
+    }
+
+    @Test
+    void invalidSignatureIsRejectedLocally() {
+        String token = JWT.create()
+            .withKeyId(KID)
+            .withIssuer(ISSUER)
+            .withAudience(AUDIENCE)
+            .withSubject("auth0|123")
+            .withExpiresAt(Instant.now().plusSeconds(300))
+            .sign(Algorithm.HMAC256("outro-segredo-com-tamanho-suficiente"));
+
+        try (LocalTokenValidator validator = new LocalTokenValidator(config(), channel)) {
+            TokenValidation result = validator.validate(token).join();
+
+            assertFalse(result.isValid());
+            assertEquals(TokenValidation.Source.LOCAL, result.getSource());
+            assertTrue(validateAnyTokenCalls.isEmpty());
+        }
+    }
+
+    private static AuthClientConfig config() {
+        return AuthClientConfig.builder()
+            .issuer(ISSUER)
+            .audience(AUDIENCE)
+            .hmacSecret(KID, SECRET)
+            .serviceName("auth-client-test")
+            .build();
+    }
+
+    private static String enhancedToken(String kid, int roleMask, long permissionMask) {
+        return JWT.create()
+            .withKeyId(kid)
+            .withIssuer(ISSUER)
+            .withAudience(AUDIENCE)
+            .withSubject("auth0|123")
+            .withClaim("email", "aluno@distrischool.test")
+            .withClaim(AuthorityMasks.VERSION_CLAIM, AuthorityMasks.FORMAT_VERSION)
+            .withClaim(AuthorityMasks.ROLE_MASK_CLAIM, roleMask)
+            .withClaim(AuthorityMasks.PERMISSION_MASK_CLAIM, permissionMask)
+            .withExpiresAt(Instant.now().plusSeconds(300))
+            .sign(Algorithm.HMAC256(SECRET));
+    }
+
+    /**
+     * Serviço de autenticação falso: aceita qualquer token, exceto o marcado como revogado
+     */
+    private final class FakeAuthService extends AuthServiceGrpc.AuthServiceImplBase {
+
+        @Override
+        public void validateAnyToken(ValidateTokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
+            validateAnyTokenCalls.add(request.getToken());
+            respond(request, responseObserver);
+        }
+
+        @Override
+        public void validateToken(ValidateTokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
+            validateTokenCalls.add(request.getToken());
+            respond(request, responseObserver);
+        }
+
+        private void respond(ValidateTokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
+            if (unavailable) {
+                responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                return;
+            }
+            if (request.getToken().equals(revoked)) {
+                responseObserver.onNext(ValidateTokenResponse.newBuilder()
+                    .setValid(false)
+                    .setErrorMessage("Token revogado")
+                    .build());
+            } else {
+                responseObserver.onNext(ValidateTokenResponse.newBuilder()
+                    .setValid(true)
+                    .setUserId("auth0|123")
+                    .setEmail("aluno@distrischool.test")
+                    .addRoles("ADMIN")
+                    .addPermissions("read:users")
+                    .setExpiresAt(Instant.now().plusSeconds(300).toEpochMilli())
+                    .build());
+            }
+            responseObserver.onCompleted();
+        }
+    }
+}
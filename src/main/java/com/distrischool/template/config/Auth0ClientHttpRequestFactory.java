@@ -0,0 +1,81 @@
+package com.distrischool.template.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Request factory das chamadas ao Auth0: todas as requisições compartilham o mesmo
+ * {@link HttpClient} (pool de conexões keep-alive / HTTP/2), com o timeout de resposta
+ * definido pelo endpoint chamado.
+ */
+public class Auth0ClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    /**
+     * Endpoints do Auth0, identificados pelo path da URL
+     */
+    public enum Endpoint {
+        /** /oauth/token: login (password-realm) e token da Management API */
+        TOKEN("/oauth/token"),
+        /** /api/v2/...: Management API (usuários) */
+        MANAGEMENT("/api/v2/"),
+        /** /dbconnections/...: reset de senha */
+        DBCONNECTIONS("/dbconnections/"),
+        OTHER("");
+
+        private final String pathPrefix;
+
+        Endpoint(String pathPrefix) {
+            this.pathPrefix = pathPrefix;
+        }
+
+        public String tagValue() {
+            return name().toLowerCase();
+        }
+
+        public static Endpoint of(URI uri) {
+            String path = uri.getPath();
+            if (path != null) {
+                for (Endpoint endpoint : values()) {
+                    if (endpoint != OTHER && path.startsWith(endpoint.pathPrefix)) {
+                        return endpoint;
+                    }
+                }
+            }
+            return OTHER;
+        }
+    }
+
+    private final Map<Endpoint, JdkClientHttpRequestFactory> factories = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Duration> timeouts = new EnumMap<>(Endpoint.class);
+
+    public Auth0ClientHttpRequestFactory(HttpClient httpClient, Map<Endpoint, Duration> timeouts) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            Duration timeout = timeouts.getOrDefault(endpoint, timeouts.get(Endpoint.OTHER));
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+            factory.setReadTimeout(timeout);
+            factories.put(endpoint, factory);
+            this.timeouts.put(endpoint, timeout);
+        }
+    }
+
+    /**
+     * Timeout de resposta configurado para o endpoint
+     */
+    public Duration timeout(Endpoint endpoint) {
+        return timeouts.get(endpoint);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return factories.get(Endpoint.of(uri)).createRequest(uri, httpMethod);
+    }
+}
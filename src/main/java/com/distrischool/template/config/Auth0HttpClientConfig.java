@@ -0,0 +1,101 @@
+package com.distrischool.template.config;
+
+import com.distrischool.template.config.Auth0ClientHttpRequestFactory.Endpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cliente HTTP dedicado às chamadas ao Auth0 (login, Management API, reset de senha).
+ *
+ * Usa o {@link HttpClient} do JDK: as conexões ficam abertas entre chamadas (keep-alive), então
+ * o handshake TLS acontece uma vez por conexão e não a cada login; com HTTP/2 (negociado via
+ * ALPN, com fallback para HTTP/1.1) as requisições são multiplexadas na mesma conexão.
+ *
+ * Timeouts: connect-timeout para abrir conexões e um timeout de resposta por endpoint
+ * (app.auth.auth0.http.timeouts.*). As tarefas do cliente (leitura das respostas e
+ * continuações dos futures do Auth0AsyncClient) rodam em no máximo app.auth.auth0.http.threads
+ * threads, para que uma lentidão do Auth0 durante um pico de logins não crie uma thread por
+ * chamada em andamento. Métricas: {@link Auth0HttpMetrics} e executor.*
+ * {name=auth0-http-client} (threads do cliente HTTP); o HttpClient do JDK não expõe o estado
+ * interno do pool de conexões.
+ *
+ * O mesmo HttpClient atende o auth0RestTemplate (Auth0ManagementService) e o Auth0AsyncClient.
+ */
+@Configuration
+@Slf4j
+public class Auth0HttpClientConfig {
+
+    @Bean
+    public HttpClient auth0HttpClient(
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.auth0.http.version:HTTP_2}") HttpClient.Version version,
+            @Value("${app.auth.auth0.http.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${app.auth.auth0.http.threads:16}") int threads
+    ) {
+        // Não exposto como bean: um Executor no contexto desativaria o executor padrão do Spring Boot.
+        // Fila sem limite: as tarefas são curtas (sem I/O bloqueante) e uma rejeição dentro do
+        // HttpClient deixaria a chamada sem resposta; o limite está no número de threads
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "auth0-http-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+
+        log.info("Cliente HTTP do Auth0: version={}, connectTimeout={}, threads={}", version, connectTimeout, threads);
+        return HttpClient.newBuilder()
+            .version(version)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .executor(ExecutorServiceMetrics.monitor(meterRegistry, executor, "auth0-http-client"))
+            .build();
+    }
+
+    @Bean
+    public Auth0HttpMetrics auth0HttpMetrics(MeterRegistry meterRegistry) {
+        return new Auth0HttpMetrics(meterRegistry);
+    }
+
+    @Bean
+    public Auth0ClientHttpRequestFactory auth0ClientHttpRequestFactory(
+            @Qualifier("auth0HttpClient") HttpClient httpClient,
+            @Value("${app.auth.auth0.http.timeouts.token:PT5S}") Duration tokenTimeout,
+            @Value("${app.auth.auth0.http.timeouts.management:PT10S}") Duration managementTimeout,
+            @Value("${app.auth.auth0.http.timeouts.dbconnections:PT10S}") Duration dbconnectionsTimeout,
+            @Value("${app.auth.auth0.http.timeouts.default:PT10S}") Duration defaultTimeout
+    ) {
+        Map<Endpoint, Duration> timeouts = new EnumMap<>(Endpoint.class);
+        timeouts.put(Endpoint.TOKEN, tokenTimeout);
+        timeouts.put(Endpoint.MANAGEMENT, managementTimeout);
+        timeouts.put(Endpoint.DBCONNECTIONS, dbconnectionsTimeout);
+        timeouts.put(Endpoint.OTHER, defaultTimeout);
+        return new Auth0ClientHttpRequestFactory(httpClient, timeouts);
+    }
+
+    @Bean
+    public RestTemplate auth0RestTemplate(
+            Auth0ClientHttpRequestFactory auth0ClientHttpRequestFactory,
+            Auth0HttpMetrics auth0HttpMetrics
+    ) {
+        RestTemplate restTemplate = new RestTemplate(auth0ClientHttpRequestFactory);
+        restTemplate.getInterceptors().add(auth0HttpMetrics.interceptor());
+        return restTemplate;
+    }
+}
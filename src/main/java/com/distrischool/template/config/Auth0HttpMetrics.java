@@ -0,0 +1,85 @@
+package com.distrischool.template.config;
+
+import com.distrischool.template.config.Auth0ClientHttpRequestFactory.Endpoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Métricas das chamadas HTTP ao Auth0, compartilhadas pelo cliente síncrono (auth0RestTemplate)
+ * e pelo assíncrono (Auth0AsyncClient):
+ * - auth0.http.requests{endpoint,method,status}: latência das chamadas
+ * - auth0.http.requests.active: chamadas em andamento
+ */
+public class Auth0HttpMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public Auth0HttpMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("auth0.http.requests.active", active, AtomicInteger::get)
+            .description("Chamadas HTTP ao Auth0 em andamento")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Marca o início de uma chamada
+     *
+     * @return instante de início (System.nanoTime) a ser passado para {@link #record}
+     */
+    public long start() {
+        active.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra o fim de uma chamada iniciada com {@link #start}
+     */
+    public void record(Endpoint endpoint, String method, String status, long startNanos) {
+        active.decrementAndGet();
+        Timer.builder("auth0.http.requests")
+            .tag("endpoint", endpoint.tagValue())
+            .tag("method", method)
+            .tag("status", status)
+            .description("Chamadas HTTP ao Auth0")
+            .register(meterRegistry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Status registrado para uma chamada que falhou sem resposta
+     */
+    public static String errorStatus(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof HttpTimeoutException ? "TIMEOUT" : "IO_ERROR";
+    }
+
+    /**
+     * Interceptor do RestTemplate que registra as métricas de cada chamada
+     */
+    public ClientHttpRequestInterceptor interceptor() {
+        return (request, body, execution) -> {
+            long start = start();
+            String status = "IO_ERROR";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                status = Integer.toString(response.getStatusCode().value());
+                return response;
+            } catch (IOException e) {
+                status = errorStatus(e);
+                throw e;
+            } finally {
+                record(Endpoint.of(request.getURI()), request.getMethod().name(), status, start);
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.distrischool.template.config;
+
+import com.distrischool.template.security.JwksSource;
+import com.distrischool.template.security.ResourceJwksSource;
+import com.distrischool.template.security.UrlJwksSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Configuração da origem do JWKS usado para validar tokens Auth0.
+ *
+ * app.auth.auth0.jwks.location:
+ * - vazio (padrão): https://{domain}/.well-known/jwks.json
+ * - http(s)://...: endpoint HTTP, por exemplo um stand-in local do Auth0
+ * - file:/... ou classpath:...: JWKS local, sem dependência de rede
+ */
+@Configuration
+@Slf4j
+public class JwksSourceConfig {
+
+    @Bean
+    public JwksSource jwksSource(
+            Auth0Config auth0Config,
+            ResourceLoader resourceLoader,
+            ObjectMapper objectMapper,
+            @Value("${app.auth.auth0.jwks.location:}") String location,
+            @Value("${app.auth.auth0.jwks.fetch-timeout:PT5S}") Duration fetchTimeout
+    ) {
+        JwksSource source;
+        if (!StringUtils.hasText(location)) {
+            // Auth0 JWK endpoint: https://{domain}/.well-known/jwks.json
+            source = new UrlJwksSource(String.format("https://%s/.well-known/jwks.json", auth0Config.getDomain()), fetchTimeout);
+        } else if (location.startsWith("http://") || location.startsWith("https://")) {
+            source = new UrlJwksSource(location, fetchTimeout);
+        } else {
+            source = new ResourceJwksSource(resourceLoader.getResource(location), objectMapper);
+        }
+        log.info("Origem do JWKS: {}", source.describe());
+        return source;
+    }
+}
@@ -55,10 +55,12 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
                 .requestMatchers(
                     "/api/v1/auth/register",
                     "/api/v1/auth/login",
+                    "/api/v1/auth/token",
                     "/api/v1/auth/forgot-password",
                     "/api/v1/auth/reset-password",
                     "/api/v1/auth/verify-email/**",
                     "/api/v1/auth/health",
+                    "/.well-known/jwks.json",
                     "/actuator/**",
                     "/health",
                     "/api/v1/health"
@@ -20,6 +20,8 @@
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller de autenticação integrado com Auth0.
  * Gerencia endpoints de registro e outras operações de autenticação.
@@ -49,18 +51,17 @@ public class AuthController {
         percentiles = {0.5, 0.9, 0.95, 0.99},
         histogram = true
     )
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> login(@Valid @RequestBody LoginRequest request) {
         log.info("POST /api/v1/auth/login - Email: {}", request.getEmail());
         
-        AuthResponse authResponse = authService.login(request);
-        
-        return ResponseEntity.ok(
+        // Assíncrono: a thread do Tomcat é liberada enquanto o Auth0 responde
+        return authService.loginAsync(request).thenApply(authResponse -> ResponseEntity.ok(
             ApiResponse.<AuthResponse>builder()
                 .success(true)
                 .message("Login realizado com sucesso")
                 .data(authResponse)
                 .build()
-        );
+        ));
     }
 
     /**
@@ -76,18 +77,17 @@ public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody Login
         percentiles = {0.5, 0.9, 0.95, 0.99},
         histogram = true
     )
-    public ResponseEntity<ApiResponse<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> register(@Valid @RequestBody RegisterRequest request) {
         log.info("POST /api/v1/auth/register - Email: {}", request.getEmail());
         
-        AuthResponse authResponse = authService.register(request);
-        
-        return ResponseEntity.status(HttpStatus.CREATED)
+        // Assíncrono: a thread do Tomcat é liberada enquanto o usuário é criado no Auth0
+        return authService.registerAsync(request).thenApply(authResponse -> ResponseEntity.status(HttpStatus.CREATED)
             .body(ApiResponse.<AuthResponse>builder()
                 .success(true)
                 .message("Registro realizado com sucesso. Verifique seu email para ativar a conta.")
                 .data(authResponse)
                 .build()
-            );
+            ));
     }
 
     /**
@@ -166,6 +166,42 @@ public ResponseEntity<ApiResponse<AuthResponse.UserResponse>> getCurrentUser() {
         );
     }
 
+    /**
+     * Endpoint de logout: revoga o token usado na requisição em todos os pods
+     * 
+     * @param authorization header Authorization (Bearer token)
+     */
+    @PostMapping("/logout")
+    @Timed(
+        value = "auth.logout",
+        description = "Time taken to logout",
+        percentiles = {0.5, 0.9, 0.95, 0.99},
+        histogram = true
+    )
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestHeader("Authorization") String authorization) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String revokedBy = authentication != null ? authentication.getName() : "UNKNOWN";
+        log.info("POST /api/v1/auth/logout - Usuário: {}", revokedBy);
+        
+        if (!authorization.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.<Void>builder()
+                    .success(false)
+                    .message("Token não informado")
+                    .build()
+                );
+        }
+        
+        authService.logout(authorization.substring(7), revokedBy);
+        
+        return ResponseEntity.ok(
+            ApiResponse.<Void>builder()
+                .success(true)
+                .message("Logout realizado com sucesso")
+                .build()
+        );
+    }
+
     /**
      * Endpoint para solicitar reset de senha via Auth0
      */
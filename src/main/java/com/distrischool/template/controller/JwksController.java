@@ -0,0 +1,36 @@
+package com.distrischool.template.controller;
+
+import com.distrischool.template.security.EnhancedJwtKeyRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica as chaves públicas dos tokens enriquecidos (ES256) no formato JWKS.
+ *
+ * Outros serviços (ex.: auth-client) usam este endpoint para verificar tokens enriquecidos
+ * localmente, sem chamar o serviço de autenticação. A resposta pode ser cacheada por
+ * alguns minutos; chaves novas são publicadas antes de passarem a assinar tokens.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final EnhancedJwtKeyRegistry keyRegistry;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        log.debug("GET /.well-known/jwks.json - Publicando chaves públicas");
+
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+            .body(Map.of("keys", keyRegistry.getPublicJwks()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.distrischool.template.controller;
+
+import com.distrischool.template.dto.ApiResponse;
+import com.distrischool.template.entity.UserRole;
+import com.distrischool.template.security.AuthorityMasks;
+import com.distrischool.template.security.PermissionSnapshot;
+import com.distrischool.template.security.UserPrincipal;
+import com.distrischool.template.service.PermissionService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller do modelo de permissions (apenas para admins).
+ * As permissions são mantidas nas tabelas permissions e role_permissions; após alterá-las,
+ * o endpoint de reload recompila o snapshot em memória de todas as instâncias.
+ */
+@RestController
+@RequestMapping("/api/v1/permissions")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class PermissionController {
+
+    private final PermissionService permissionService;
+
+    /**
+     * Lista as permissions de cada role (snapshot em memória)
+     * Apenas admins
+     */
+    @GetMapping
+    @Timed(value = "permissions.get.all", description = "Time taken to get permissions by role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<UserRole, List<String>>>> getPermissionsByRole() {
+        log.info("GET /api/v1/permissions");
+        
+        PermissionSnapshot snapshot = permissionService.getSnapshot();
+        Map<UserRole, List<String>> permissionsByRole = new EnumMap<>(UserRole.class);
+        for (UserRole role : UserRole.values()) {
+            permissionsByRole.put(role, snapshot.getPermissions(AuthorityMasks.roleBit(role)));
+        }
+        
+        return ResponseEntity.ok(
+            ApiResponse.<Map<UserRole, List<String>>>builder()
+                .success(true)
+                .message("Permissions por role")
+                .data(permissionsByRole)
+                .build()
+        );
+    }
+
+    /**
+     * Recarrega o modelo de permissions do banco em todas as instâncias
+     * Apenas admins
+     */
+    @PostMapping("/reload")
+    @Timed(value = "permissions.reload", description = "Time taken to reload permissions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> reloadPermissions(@AuthenticationPrincipal UserPrincipal principal) {
+        log.info("POST /api/v1/permissions/reload");
+        
+        String changedBy = principal != null ? principal.getEmail() : "ADMIN";
+        if (!permissionService.reloadAndBroadcast(changedBy)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                ApiResponse.<Void>builder()
+                    .success(false)
+                    .message("Não foi possível recarregar as permissions; o modelo atual foi mantido")
+                    .build()
+            );
+        }
+        
+        return ResponseEntity.ok(
+            ApiResponse.<Void>builder()
+                .success(true)
+                .message("Permissions recarregadas")
+                .build()
+        );
+    }
+}
@@ -0,0 +1,59 @@
+package com.distrischool.template.controller;
+
+import com.distrischool.template.dto.auth.TokenExchangeResponse;
+import com.distrischool.template.service.TokenExchangeService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoint de troca de tokens (RFC 8693).
+ *
+ * Troca um access token do Auth0 por um token enriquecido com roles e permissions:
+ * <pre>
+ * POST /api/v1/auth/token
+ * Content-Type: application/x-www-form-urlencoded
+ *
+ * grant_type=urn:ietf:params:oauth:grant-type:token-exchange
+ * &amp;subject_token=&lt;token Auth0&gt;
+ * &amp;subject_token_type=urn:ietf:params:oauth:token-type:access_token
+ * </pre>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/auth")
+@RequiredArgsConstructor
+public class TokenExchangeController {
+
+    private final TokenExchangeService tokenExchangeService;
+
+    @PostMapping(value = "/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    @Timed(
+        value = "auth.token_exchange",
+        description = "Time taken to exchange an Auth0 token",
+        percentiles = {0.5, 0.9, 0.95, 0.99},
+        histogram = true
+    )
+    public ResponseEntity<TokenExchangeResponse> exchange(
+            @RequestParam(value = "grant_type", required = false) String grantType,
+            @RequestParam(value = "subject_token", required = false) String subjectToken,
+            @RequestParam(value = "subject_token_type", required = false) String subjectTokenType,
+            @RequestParam(value = "requested_token_type", required = false) String requestedTokenType) {
+        log.debug("POST /api/v1/auth/token - Troca de token solicitada");
+
+        TokenExchangeResponse response = tokenExchangeService.exchange(
+            grantType, subjectToken, subjectTokenType, requestedTokenType);
+
+        // RFC 6749, seção 5.1: respostas com tokens não devem ser cacheadas
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .body(response);
+    }
+}
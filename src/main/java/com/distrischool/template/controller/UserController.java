@@ -3,15 +3,18 @@
 import com.distrischool.template.dto.ApiResponse;
 import com.distrischool.template.entity.User;
 import com.distrischool.template.entity.UserRole;
+import com.distrischool.template.security.UserPrincipal;
 import com.distrischool.template.service.UserService;
 import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Controller de gerenciamento de usuários - Padrão MVC.
@@ -152,6 +155,31 @@ public ResponseEntity<ApiResponse<Void>> reactivateUser(@PathVariable Long id) {
         );
     }
 
+    /**
+     * Substitui as roles de um usuário (tokens emitidos com as roles anteriores deixam de valer)
+     * Apenas admins
+     */
+    @PutMapping("/{id}/roles")
+    @Timed(value = "users.update.roles", description = "Time taken to update user roles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<User>> updateRoles(
+            @PathVariable Long id,
+            @RequestBody Set<UserRole> roles,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        log.info("PUT /api/v1/users/{}/roles", id);
+        
+        String updatedBy = principal != null ? principal.getEmail() : "ADMIN";
+        User user = userService.updateRoles(id, roles, updatedBy);
+        
+        return ResponseEntity.ok(
+            ApiResponse.<User>builder()
+                .success(true)
+                .message("Roles do usuário atualizadas com sucesso")
+                .data(user)
+                .build()
+        );
+    }
+
     /**
      * Busca usuário por Auth0 ID
      * Endpoint interno para uso entre serviços
@@ -0,0 +1,33 @@
+package com.distrischool.template.dto.auth;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para resposta da troca de tokens (RFC 8693, seção 2.2.1).
+ * Os nomes dos campos seguem a especificação, por isso não usa o ApiResponse.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenExchangeResponse {
+
+    @JsonProperty("access_token")
+    private String accessToken;
+
+    @JsonProperty("issued_token_type")
+    private String issuedTokenType;
+
+    @JsonProperty("token_type")
+    private String tokenType;
+
+    /**
+     * Segundos até a expiração do token emitido
+     */
+    @JsonProperty("expires_in")
+    private long expiresIn;
+}
@@ -0,0 +1,35 @@
+package com.distrischool.template.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Entidade Permission representa uma permissão concedida às roles do DistriSchool.
+ * O bit identifica a permission na máscara dos tokens enriquecidos e nunca deve ser reutilizado.
+ */
+@Entity
+@Table(name = "permissions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(callSuper = true)
+public class Permission extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "name", nullable = false, unique = true, length = 100)
+    private String name;
+
+    @Column(name = "bit", nullable = false, unique = true)
+    private Short bit;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Column(name = "active", nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+}
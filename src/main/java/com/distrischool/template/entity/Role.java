@@ -17,8 +17,8 @@
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EqualsAndHashCode(callSuper = true, exclude = {"users"})
-@ToString(exclude = {"users"})
+@EqualsAndHashCode(callSuper = true, exclude = {"users", "permissions"})
+@ToString(exclude = {"users", "permissions"})
 public class Role extends BaseEntity {
 
     @Id
@@ -41,6 +41,16 @@ public class Role extends BaseEntity {
     @JsonIgnore
     private Set<User> users = new HashSet<>();
 
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+        name = "role_permissions",
+        joinColumns = @JoinColumn(name = "role_id"),
+        inverseJoinColumns = @JoinColumn(name = "permission_id")
+    )
+    @Builder.Default
+    @JsonIgnore
+    private Set<Permission> permissions = new HashSet<>();
+
     /**
      * Retorna o nome da role formatado para Spring Security
      */
@@ -1,5 +1,6 @@
 package com.distrischool.template.entity;
 
+import com.distrischool.template.security.AuthorityMasks;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -72,6 +73,25 @@ public class User extends BaseEntity {
     @Builder.Default
     private Set<Role> roles = new HashSet<>();
 
+    /**
+     * Cópia desnormalizada das roles (um bit por role, ver {@link AuthorityMasks#roleBit(UserRole)}).
+     * Mantida por {@link #addRole(Role)}/{@link #removeRole(Role)} na mesma transação que user_roles;
+     * verificações e filtros por role leem apenas esta coluna.
+     */
+    @Column(name = "role_mask", nullable = false)
+    @Builder.Default
+    @Setter(AccessLevel.NONE)
+    private Integer roleMask = 0;
+
+    /**
+     * Época de autorização: incrementada a cada mudança de roles ou desativação. Tokens
+     * enriquecidos emitidos com uma época menor deixam de ser aceitos (AuthzEpochIndex).
+     */
+    @Column(name = "authz_epoch", nullable = false)
+    @Builder.Default
+    @Setter(AccessLevel.NONE)
+    private Integer authzEpoch = 0;
+
     /**
      * Retorna o nome completo do usuário
      */
@@ -94,11 +114,13 @@ public void updateLastLogin() {
     }
 
     /**
-     * Adiciona uma role ao usuário
+     * Adiciona uma role ao usuário.
+     * Apenas o lado dono da associação (user_roles) é mantido: Role.users é somente mappedBy e
+     * as instâncias de Role do RoleRegistry são compartilhadas entre requisições.
      */
     public void addRole(Role role) {
         this.roles.add(role);
-        role.getUsers().add(this);
+        this.roleMask |= AuthorityMasks.roleBit(role.getName());
     }
 
     /**
@@ -106,15 +128,24 @@ public void addRole(Role role) {
      */
     public void removeRole(Role role) {
         this.roles.remove(role);
-        role.getUsers().remove(this);
+        this.roleMask &= ~AuthorityMasks.roleBit(role.getName());
+    }
+
+    /**
+     * Incrementa a época de autorização (invalida os tokens enriquecidos já emitidos)
+     *
+     * @return A nova época
+     */
+    public int incrementAuthzEpoch() {
+        this.authzEpoch++;
+        return authzEpoch;
     }
 
     /**
      * Verifica se o usuário tem uma role específica
      */
     public boolean hasRole(UserRole userRole) {
-        return this.roles.stream()
-            .anyMatch(role -> role.getName() == userRole);
+        return (roleMask & AuthorityMasks.roleBit(userRole)) != 0;
     }
 
     /**
@@ -76,6 +76,20 @@ public ResponseEntity<ApiResponse<Void>> handleBusinessException(
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    /**
+     * Erros da troca de tokens seguem o formato do RFC 6749 (error, error_description)
+     */
+    @ExceptionHandler(TokenExchangeException.class)
+    public ResponseEntity<Map<String, String>> handleTokenExchangeException(
+            TokenExchangeException ex, WebRequest request) {
+        
+        log.warn("Erro na troca de token: {} - {}", ex.getError(), ex.getMessage());
+        
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", ex.getError(), "error_description", ex.getMessage()));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ApiResponse<Void>> handleAccessDeniedException(
             AccessDeniedException ex, WebRequest request) {
@@ -0,0 +1,22 @@
+package com.distrischool.template.exception;
+
+import lombok.Getter;
+
+/**
+ * Exceção para falhas na troca de tokens (RFC 8693).
+ * O código de erro segue o RFC 6749, seção 5.2 (invalid_request, invalid_grant, ...).
+ */
+@Getter
+public class TokenExchangeException extends RuntimeException {
+
+    public static final String INVALID_REQUEST = "invalid_request";
+    public static final String INVALID_GRANT = "invalid_grant";
+    public static final String UNSUPPORTED_GRANT_TYPE = "unsupported_grant_type";
+
+    private final String error;
+
+    public TokenExchangeException(String error, String message) {
+        super(message);
+        this.error = error;
+    }
+}
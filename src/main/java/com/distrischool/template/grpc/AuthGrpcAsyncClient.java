@@ -0,0 +1,274 @@
+package com.distrischool.template.grpc;
+
+import com.distrischool.template.grpc.AuthGrpcClient.TokenValidationResult;
+import com.distrischool.template.grpc.AuthGrpcClient.UserInfo;
+import com.distrischool.template.security.TokenHashes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente gRPC assíncrono para o serviço de autenticação.
+ *
+ * Versão não bloqueante do {@link AuthGrpcClient}: usa o FutureStub e retorna
+ * {@link CompletableFuture}s, com deadline em todas as chamadas (app.grpc.client.deadline).
+ * Erros de comunicação completam o future com o mesmo resultado de fallback do cliente
+ * bloqueante (token inválido, lista vazia, false).
+ *
+ * Cache opcional no cliente (app.grpc.client.cache.enabled):
+ * - validateToken: resultados válidos até o expires_at do token (limitado por token-max-ttl)
+ * - getUserRoles/hasRole: roles por usuário com TTL curto (roles-ttl)
+ */
+@Service
+@Slf4j
+public class AuthGrpcAsyncClient {
+
+    @GrpcClient("auth-service")
+    private AuthServiceGrpc.AuthServiceFutureStub authServiceFutureStub;
+
+    private final Duration deadline;
+    private final boolean cacheEnabled;
+    private final Cache<String, TokenValidationResult> tokenCache;
+    private final Cache<String, List<String>> rolesCache;
+
+    public AuthGrpcAsyncClient(
+            @Value("${app.grpc.client.deadline:PT2S}") Duration deadline,
+            @Value("${app.grpc.client.cache.enabled:false}") boolean cacheEnabled,
+            @Value("${app.grpc.client.cache.max-size:10000}") long maxSize,
+            @Value("${app.grpc.client.cache.token-max-ttl:PT5M}") Duration tokenMaxTtl,
+            @Value("${app.grpc.client.cache.roles-ttl:PT30S}") Duration rolesTtl
+    ) {
+        this.deadline = deadline;
+        this.cacheEnabled = cacheEnabled;
+        this.tokenCache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new TokenResultExpiry(tokenMaxTtl))
+            .build();
+        this.rolesCache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(rolesTtl)
+            .build();
+    }
+
+    /**
+     * Valida um token JWT
+     *
+     * @param token O token JWT a ser validado
+     * @param serviceName Nome do serviço que está fazendo a validação
+     * @return Future com o TokenValidationResult
+     */
+    public CompletableFuture<TokenValidationResult> validateToken(String token, String serviceName) {
+        String cacheKey = cacheEnabled ? TokenHashes.sha256(token) : null;
+        if (cacheKey != null) {
+            TokenValidationResult cached = tokenCache.getIfPresent(cacheKey);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        ValidateTokenRequest request = ValidateTokenRequest.newBuilder()
+            .setToken(token)
+            .setServiceName(serviceName)
+            .build();
+
+        return toCompletableFuture(stub().validateToken(request))
+            .thenApply(AuthGrpcClient::toTokenValidationResult)
+            .whenComplete((result, ex) -> {
+                if (cacheKey != null && result != null && result.isValid()) {
+                    tokenCache.put(cacheKey, result);
+                }
+            })
+            .exceptionally(e -> {
+                log.error("Erro gRPC ao validar token: {}", e.getMessage());
+                return TokenValidationResult.builder()
+                    .valid(false)
+                    .errorMessage("Erro de comunicação com serviço de autenticação: " + e.getMessage())
+                    .build();
+            });
+    }
+
+    /**
+     * Obtém informações de um usuário pelo ID
+     *
+     * @param userId ID do usuário
+     * @return Future com o UserInfo
+     */
+    public CompletableFuture<UserInfo> getUserById(String userId) {
+        GetUserByIdRequest request = GetUserByIdRequest.newBuilder()
+            .setUserId(userId)
+            .build();
+
+        return toCompletableFuture(stub().getUserById(request))
+            .thenApply(AuthGrpcClient::toUserInfo)
+            .exceptionally(e -> {
+                log.error("Erro gRPC ao consultar usuário por ID: {}", e.getMessage());
+                return UserInfo.builder()
+                    .found(false)
+                    .errorMessage("Erro de comunicação com serviço de autenticação: " + e.getMessage())
+                    .build();
+            });
+    }
+
+    /**
+     * Verifica se um usuário possui uma role específica. Com o cache habilitado,
+     * usa as roles já carregadas por {@link #getUserRoles(String)}.
+     *
+     * @param userId ID do usuário
+     * @param role Nome da role
+     * @return Future com true se o usuário possui a role
+     */
+    public CompletableFuture<Boolean> hasRole(String userId, String role) {
+        if (cacheEnabled) {
+            List<String> cached = rolesCache.getIfPresent(userId);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached.contains(role));
+            }
+        }
+
+        HasRoleRequest request = HasRoleRequest.newBuilder()
+            .setUserId(userId)
+            .setRole(role)
+            .build();
+
+        return toCompletableFuture(stub().hasRole(request))
+            .thenApply(HasRoleResponse::getHasRole)
+            .exceptionally(e -> {
+                log.error("Erro gRPC ao verificar role: {}", e.getMessage());
+                return false;
+            });
+    }
+
+    /**
+     * Obtém todas as roles de um usuário
+     *
+     * @param userId ID do usuário
+     * @return Future com a lista de roles do usuário
+     */
+    public CompletableFuture<List<String>> getUserRoles(String userId) {
+        if (cacheEnabled) {
+            List<String> cached = rolesCache.getIfPresent(userId);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        GetUserRolesRequest request = GetUserRolesRequest.newBuilder()
+            .setUserId(userId)
+            .build();
+
+        return toCompletableFuture(stub().getUserRoles(request))
+            .thenApply(response -> {
+                List<String> roles = List.copyOf(response.getRolesList());
+                if (cacheEnabled && response.getErrorMessage().isEmpty()) {
+                    rolesCache.put(userId, roles);
+                }
+                return roles;
+            })
+            .exceptionally(e -> {
+                log.error("Erro gRPC ao consultar roles: {}", e.getMessage());
+                return List.of();
+            });
+    }
+
+    /**
+     * Verifica a saúde do serviço de autenticação
+     *
+     * @param serviceName Nome do serviço que está fazendo o health check
+     * @return Future com true se o serviço está saudável
+     */
+    public CompletableFuture<Boolean> healthCheck(String serviceName) {
+        HealthCheckRequest request = HealthCheckRequest.newBuilder()
+            .setServiceName(serviceName)
+            .build();
+
+        return toCompletableFuture(stub().healthCheck(request))
+            .thenApply(HealthCheckResponse::getHealthy)
+            .exceptionally(e -> {
+                log.error("Erro gRPC no health check: {}", e.getMessage());
+                return false;
+            });
+    }
+
+    /**
+     * Remove do cache as roles de um usuário (ex.: após receber um evento de alteração)
+     */
+    public void evictUserRoles(String userId) {
+        rolesCache.invalidate(userId);
+    }
+
+    /**
+     * Stub com deadline aplicado a partir do momento da chamada
+     */
+    private AuthServiceGrpc.AuthServiceFutureStub stub() {
+        return authServiceFutureStub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Converte o ListenableFuture do gRPC; cancelar o CompletableFuture cancela a chamada
+     */
+    private static <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> listenable) {
+        CompletableFuture<T> future = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                listenable.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        Futures.addCallback(listenable, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    /**
+     * Expira cada resultado no expires_at do token, limitado pelo TTL máximo
+     */
+    private static final class TokenResultExpiry implements Expiry<String, TokenValidationResult> {
+
+        private final long maxTtlNanos;
+
+        private TokenResultExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, TokenValidationResult value, long currentTime) {
+            if (value.getExpiresAt() <= 0) {
+                return maxTtlNanos;
+            }
+            long remainingMillis = value.getExpiresAt() - System.currentTimeMillis();
+            return Math.max(0, Math.min(TimeUnit.MILLISECONDS.toNanos(remainingMillis), maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenValidationResult value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenValidationResult value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -5,9 +5,12 @@
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Cliente gRPC para comunicação com o serviço de autenticação.
@@ -21,6 +24,15 @@ public class AuthGrpcClient {
     @GrpcClient("auth-service")
     private AuthServiceGrpc.AuthServiceBlockingStub authServiceStub;
 
+    @GrpcClient("auth-service")
+    private AuthServiceGrpc.AuthServiceStub authServiceAsyncStub;
+
+    /**
+     * Requests aguardando o transporte em cada stream de validação; acima disso a validação falha
+     */
+    @Value("${app.grpc.client.validate-token-stream.max-queued:1000}")
+    private int streamMaxQueued;
+
     /**
      * Valida um token JWT
      * 
@@ -39,15 +51,7 @@ public TokenValidationResult validateToken(String token, String serviceName) {
 
             ValidateTokenResponse response = authServiceStub.validateToken(request);
             
-            return TokenValidationResult.builder()
-                .valid(response.getValid())
-                .userId(response.getUserId())
-                .email(response.getEmail())
-                .username(response.getUsername())
-                .roles(response.getRolesList())
-                .expiresAt(response.getExpiresAt())
-                .errorMessage(response.getErrorMessage())
-                .build();
+            return toTokenValidationResult(response);
                 
         } catch (StatusRuntimeException e) {
             log.error("Erro gRPC ao validar token: {}", e.getMessage(), e);
@@ -64,6 +68,70 @@ public TokenValidationResult validateToken(String token, String serviceName) {
         }
     }
 
+    /**
+     * Valida vários tokens JWT em uma única chamada (validados em paralelo no servidor)
+     * 
+     * @param tokens Os tokens JWT a serem validados
+     * @param serviceName Nome do serviço que está fazendo a validação
+     * @return Um TokenValidationResult por token, na mesma ordem da lista recebida
+     */
+    public List<TokenValidationResult> validateTokens(List<String> tokens, String serviceName) {
+        try {
+            log.debug("Validando {} tokens JWT via gRPC para serviço: {}", tokens.size(), serviceName);
+            
+            ValidateTokensRequest request = ValidateTokensRequest.newBuilder()
+                .addAllTokens(tokens)
+                .setServiceName(serviceName)
+                .build();
+
+            ValidateTokensResponse response = authServiceStub.validateTokens(request);
+            
+            return response.getResultsList().stream()
+                .map(AuthGrpcClient::toTokenValidationResult)
+                .collect(Collectors.toList());
+                
+        } catch (StatusRuntimeException e) {
+            log.error("Erro gRPC ao validar tokens: {}", e.getMessage(), e);
+            return invalidResults(tokens.size(), "Erro de comunicação com serviço de autenticação: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Erro inesperado ao validar tokens via gRPC", e);
+            return invalidResults(tokens.size(), "Erro interno: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Abre um stream bidirecional para validação de tokens de alto volume.
+     * As validações são enviadas sem bloquear e cada uma retorna um CompletableFuture.
+     * 
+     * @param serviceName Nome do serviço que está fazendo a validação
+     * @return Stream de validação; deve ser fechado quando não for mais usado
+     */
+    public TokenValidationStream openValidationStream(String serviceName) {
+        log.debug("Abrindo stream de validação de tokens via gRPC para serviço: {}", serviceName);
+        return new TokenValidationStream(authServiceAsyncStub, serviceName, streamMaxQueued);
+    }
+
+    static TokenValidationResult toTokenValidationResult(ValidateTokenResponse response) {
+        return TokenValidationResult.builder()
+            .valid(response.getValid())
+            .userId(response.getUserId())
+            .email(response.getEmail())
+            .username(response.getUsername())
+            .roles(response.getRolesList())
+            .expiresAt(response.getExpiresAt())
+            .errorMessage(response.getErrorMessage())
+            .build();
+    }
+
+    private static List<TokenValidationResult> invalidResults(int count, String errorMessage) {
+        return Stream.generate(() -> TokenValidationResult.builder()
+                .valid(false)
+                .errorMessage(errorMessage)
+                .build())
+            .limit(count)
+            .collect(Collectors.toList());
+    }
+
     /**
      * Obtém informações de um usuário pelo ID
      * 
@@ -80,25 +148,7 @@ public UserInfo getUserById(String userId) {
 
             GetUserByIdResponse response = authServiceStub.getUserById(request);
             
-            if (response.getFound()) {
-                return UserInfo.builder()
-                    .found(true)
-                    .userId(response.getUserId())
-                    .email(response.getEmail())
-                    .username(response.getUsername())
-                    .firstName(response.getFirstName())
-                    .lastName(response.getLastName())
-                    .active(response.getActive())
-                    .roles(response.getRolesList())
-                    .createdAt(response.getCreatedAt())
-                    .updatedAt(response.getUpdatedAt())
-                    .build();
-            } else {
-                return UserInfo.builder()
-                    .found(false)
-                    .errorMessage(response.getErrorMessage())
-                    .build();
-            }
+            return toUserInfo(response);
                 
         } catch (StatusRuntimeException e) {
             log.error("Erro gRPC ao consultar usuário por ID: {}", e.getMessage(), e);
@@ -115,6 +165,27 @@ public UserInfo getUserById(String userId) {
         }
     }
 
+    static UserInfo toUserInfo(GetUserByIdResponse response) {
+        if (!response.getFound()) {
+            return UserInfo.builder()
+                .found(false)
+                .errorMessage(response.getErrorMessage())
+                .build();
+        }
+        return UserInfo.builder()
+            .found(true)
+            .userId(response.getUserId())
+            .email(response.getEmail())
+            .username(response.getUsername())
+            .firstName(response.getFirstName())
+            .lastName(response.getLastName())
+            .active(response.getActive())
+            .roles(response.getRolesList())
+            .createdAt(response.getCreatedAt())
+            .updatedAt(response.getUpdatedAt())
+            .build();
+    }
+
     /**
      * Verifica se um usuário possui uma role específica
      * 
@@ -171,6 +242,64 @@ public List<String> getUserRoles(String userId) {
         }
     }
 
+    /**
+     * Verifica se um usuário possui uma permission (ex: "write:grades")
+     * 
+     * @param userId ID do usuário
+     * @param permission Nome da permission
+     * @return true se alguma role do usuário concede a permission
+     */
+    public boolean checkPermission(String userId, String permission) {
+        try {
+            log.debug("Verificando permission via gRPC - Usuário: {}, Permission: {}", userId, permission);
+            
+            CheckPermissionRequest request = CheckPermissionRequest.newBuilder()
+                .setUserId(userId)
+                .setPermission(permission)
+                .build();
+
+            return authServiceStub.checkPermission(request).getAllowed();
+                
+        } catch (StatusRuntimeException e) {
+            log.error("Erro gRPC ao verificar permission: {}", e.getMessage(), e);
+            return false;
+        } catch (Exception e) {
+            log.error("Erro inesperado ao verificar permission via gRPC", e);
+            return false;
+        }
+    }
+
+    /**
+     * Verifica várias permissions de um usuário em uma única chamada
+     * 
+     * @param userId ID do usuário
+     * @param permissions Nomes das permissions
+     * @return Um resultado por permission, na mesma ordem da lista recebida (false em caso de erro)
+     */
+    public List<Boolean> checkPermissions(String userId, List<String> permissions) {
+        try {
+            log.debug("Verificando {} permissions via gRPC - Usuário: {}", permissions.size(), userId);
+            
+            CheckPermissionsRequest.Builder request = CheckPermissionsRequest.newBuilder();
+            for (String permission : permissions) {
+                request.addChecks(CheckPermissionRequest.newBuilder()
+                    .setUserId(userId)
+                    .setPermission(permission));
+            }
+
+            return authServiceStub.checkPermissions(request.build()).getResultsList().stream()
+                .map(CheckPermissionResponse::getAllowed)
+                .collect(Collectors.toList());
+                
+        } catch (StatusRuntimeException e) {
+            log.error("Erro gRPC ao verificar permissions: {}", e.getMessage(), e);
+            return permissions.stream().map(permission -> false).collect(Collectors.toList());
+        } catch (Exception e) {
+            log.error("Erro inesperado ao verificar permissions via gRPC", e);
+            return permissions.stream().map(permission -> false).collect(Collectors.toList());
+        }
+    }
+
     /**
      * Verifica a saúde do serviço de autenticação
      * 
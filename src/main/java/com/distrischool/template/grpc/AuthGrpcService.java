@@ -1,83 +1,273 @@
 package com.distrischool.template.grpc;
 
-import com.distrischool.template.entity.User;
 import com.distrischool.template.entity.UserRole;
 import com.distrischool.template.repository.UserRepository;
+import com.distrischool.template.security.AuthorityMasks;
+import com.distrischool.template.security.AuthzEpochIndex;
+import com.distrischool.template.security.PermissionSnapshot;
+import com.distrischool.template.security.TokenDenylist;
+import com.distrischool.template.security.UserRoleIndex;
+import com.distrischool.template.security.ValidatedToken;
 import com.distrischool.template.service.JwtService;
+import com.distrischool.template.service.PermissionService;
 import com.distrischool.template.grpc.AuthServiceProto.*;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementação do serviço gRPC de autenticação.
  * Fornece validação de JWT e consultas de usuário para outros microsserviços.
  */
 @GrpcService
-@RequiredArgsConstructor
 @Slf4j
 public class AuthGrpcService extends AuthServiceGrpc.AuthServiceImplBase {
 
+    /**
+     * Lotes menores que isso são validados na própria thread da chamada
+     */
+    private static final int PARALLEL_THRESHOLD = 16;
+
+    private static final CheckPermissionResponse PERMISSION_ALLOWED = CheckPermissionResponse.newBuilder()
+        .setAllowed(true)
+        .build();
+
+    private static final CheckPermissionResponse PERMISSION_DENIED = CheckPermissionResponse.newBuilder()
+        .setAllowed(false)
+        .build();
+
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final UserRoleIndex userRoleIndex;
+    private final PermissionService permissionService;
+    private final TokenDenylist tokenDenylist;
+    private final AuthzEpochIndex authzEpochIndex;
+    private final ExecutorService tokenValidationExecutor;
+    private final int maxBatchSize;
+    private final int parallelism;
+    private final int streamMaxInFlight;
+    private final int checkPermissionsMaxBatchSize;
+
+    public AuthGrpcService(
+            JwtService jwtService,
+            UserRepository userRepository,
+            UserRoleIndex userRoleIndex,
+            PermissionService permissionService,
+            TokenDenylist tokenDenylist,
+            AuthzEpochIndex authzEpochIndex,
+            MeterRegistry meterRegistry,
+            @Value("${app.grpc.validate-tokens.max-batch-size:1000}") int maxBatchSize,
+            @Value("${app.grpc.validate-tokens.parallelism:0}") int parallelism,
+            @Value("${app.grpc.validate-token-stream.max-in-flight:64}") int streamMaxInFlight,
+            @Value("${app.grpc.check-permissions.max-batch-size:1000}") int checkPermissionsMaxBatchSize
+    ) {
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+        this.userRoleIndex = userRoleIndex;
+        this.permissionService = permissionService;
+        this.tokenDenylist = tokenDenylist;
+        this.authzEpochIndex = authzEpochIndex;
+        this.maxBatchSize = maxBatchSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.streamMaxInFlight = streamMaxInFlight;
+        this.checkPermissionsMaxBatchSize = checkPermissionsMaxBatchSize;
+
+        // Pool das validações em lote e do stream: uma thread por core por padrão (validação limitada
+        // por CPU). Não exposto como bean: um Executor no contexto desativaria o executor padrão do Spring Boot
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "token-validation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.tokenValidationExecutor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "token-validation");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        tokenValidationExecutor.shutdown();
+    }
 
     @Override
     public void validateToken(ValidateTokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
         log.debug("Validação de token JWT solicitada pelo serviço: {}", request.getServiceName());
         
+        responseObserver.onNext(buildValidateTokenResponse(request.getToken()));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void validateAnyToken(ValidateTokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
+        log.debug("Validação de token JWT (Auth0 ou enriquecido) solicitada pelo serviço: {}", request.getServiceName());
+
+        responseObserver.onNext(buildValidateAnyTokenResponse(request.getToken()));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void validateTokens(ValidateTokensRequest request, StreamObserver<ValidateTokensResponse> responseObserver) {
+        int count = request.getTokensCount();
+        log.debug("Validação de {} tokens JWT solicitada pelo serviço: {}", count, request.getServiceName());
+
+        if (count > maxBatchSize) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Número máximo de tokens por chamada: " + maxBatchSize)
+                .asRuntimeException());
+            return;
+        }
+
         try {
-            // Valida o token JWT
-            if (jwtService.isTokenValid(request.getToken())) {
-                // Extrai informações do token
-                String userId = jwtService.extractUserId(request.getToken());
-                String email = jwtService.extractEmail(request.getToken());
-                String username = jwtService.extractUsername(request.getToken());
-                List<String> roles = jwtService.extractRoles(request.getToken());
-                long expiresAt = jwtService.extractExpiration(request.getToken()).getTime();
-
-                ValidateTokenResponse response = ValidateTokenResponse.newBuilder()
-                    .setValid(true)
-                    .setUserId(userId)
-                    .setEmail(email)
-                    .setUsername(username)
-                    .addAllRoles(roles)
-                    .setExpiresAt(expiresAt)
-                    .build();
+            ValidateTokenResponse[] results = new ValidateTokenResponse[count];
+            List<String> tokens = request.getTokensList();
 
-                responseObserver.onNext(response);
-                responseObserver.onCompleted();
-                
-                log.debug("Token JWT válido para usuário: {}", email);
+            if (count < PARALLEL_THRESHOLD) {
+                validateRange(tokens, results, 0, count);
             } else {
-                ValidateTokenResponse response = ValidateTokenResponse.newBuilder()
+                // Divide o lote em blocos contíguos, um por thread do pool
+                int chunkSize = Math.max(PARALLEL_THRESHOLD / 2, (count + parallelism - 1) / parallelism);
+                List<CompletableFuture<Void>> chunks = new ArrayList<>();
+                for (int from = 0; from < count; from += chunkSize) {
+                    int start = from;
+                    int end = Math.min(from + chunkSize, count);
+                    chunks.add(CompletableFuture.runAsync(
+                        () -> validateRange(tokens, results, start, end), tokenValidationExecutor));
+                }
+                CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+            }
+
+            responseObserver.onNext(ValidateTokensResponse.newBuilder()
+                .addAllResults(Arrays.asList(results))
+                .build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            log.error("Erro ao validar lote de tokens JWT", e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Erro interno na validação dos tokens: " + e.getMessage())
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public StreamObserver<ValidateTokenStreamRequest> validateTokenStream(
+            StreamObserver<ValidateTokenStreamResponse> responseObserver) {
+        return new TokenValidationStreamHandler((ServerCallStreamObserver<ValidateTokenStreamResponse>) responseObserver);
+    }
+
+    private void validateRange(List<String> tokens, ValidateTokenResponse[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = buildValidateTokenResponse(tokens.get(i));
+        }
+    }
+
+    /**
+     * Valida o token uma única vez e monta a resposta (nunca lança exceção)
+     */
+    private ValidateTokenResponse buildValidateTokenResponse(String jwt) {
+        try {
+            // Valida o token JWT uma única vez e extrai todos os claims
+            return buildValidateTokenResponse(jwtService.validate(jwt));
+        } catch (Exception e) {
+            return internalErrorResponse(e);
+        }
+    }
+
+    /**
+     * Como {@link #buildValidateTokenResponse(String)}, aceitando também tokens enriquecidos;
+     * tokens enriquecidos emitidos antes de uma mudança de roles ou desativação do usuário
+     * (época de autorização desatualizada) são rejeitados, como no JwtAuthenticationFilter
+     */
+    private ValidateTokenResponse buildValidateAnyTokenResponse(String jwt) {
+        try {
+            Optional<ValidatedToken> validated = jwtService.validateAny(jwt);
+
+            if (validated.isPresent() && isStaleEnhancedToken(validated.get())) {
+                log.debug("Token enriquecido desatualizado (época {}) para o usuário {}",
+                    validated.get().getAuthzEpoch(), validated.get().getUserId());
+                return ValidateTokenResponse.newBuilder()
                     .setValid(false)
-                    .setErrorMessage("Token inválido ou expirado")
+                    .setErrorMessage("Token desatualizado")
                     .build();
-
-                responseObserver.onNext(response);
-                responseObserver.onCompleted();
-                
-                log.debug("Token JWT inválido");
             }
+
+            return buildValidateTokenResponse(validated);
         } catch (Exception e) {
-            log.error("Erro ao validar token JWT", e);
-            
-            ValidateTokenResponse response = ValidateTokenResponse.newBuilder()
+            return internalErrorResponse(e);
+        }
+    }
+
+    private boolean isStaleEnhancedToken(ValidatedToken token) {
+        return token.getTokenType() == ValidatedToken.TokenType.ENHANCED
+            && token.getUserId() != null
+            && token.getAuthzEpoch() >= 0
+            && authzEpochIndex.isStale(token.getUserId(), token.getAuthzEpoch());
+    }
+
+    /**
+     * Monta a resposta de um token já validado, aplicando a lista de revogação
+     */
+    private ValidateTokenResponse buildValidateTokenResponse(Optional<ValidatedToken> validated) {
+        if (validated.isPresent() && tokenDenylist.isRevoked(validated.get())) {
+            log.debug("Token JWT revogado: subject={}", validated.get().getSubject());
+            return ValidateTokenResponse.newBuilder()
                 .setValid(false)
-                .setErrorMessage("Erro interno na validação do token: " + e.getMessage())
+                .setErrorMessage("Token revogado")
                 .build();
+        }
 
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
+        if (validated.isPresent()) {
+            ValidatedToken token = validated.get();
+
+            ValidateTokenResponse.Builder response = ValidateTokenResponse.newBuilder()
+                .setValid(true)
+                .setUserId(token.getSubject())
+                .addAllRoles(token.getRoles())
+                .addAllPermissions(token.getPermissions())
+                .setExpiresAt(token.getExpiresAtMillis());
+            // Tokens sem o claim email (ex.: client credentials) não definem email/username
+            if (token.getEmail() != null) {
+                response.setEmail(token.getEmail())
+                    .setUsername(token.getUsername());
+            }
+
+            log.debug("Token JWT válido para usuário: {}", token.getEmail());
+            return response.build();
         }
+
+        log.debug("Token JWT inválido");
+        return ValidateTokenResponse.newBuilder()
+            .setValid(false)
+            .setErrorMessage("Token inválido ou expirado")
+            .build();
+    }
+
+    private static ValidateTokenResponse internalErrorResponse(Exception e) {
+        log.error("Erro ao validar token JWT", e);
+        
+        return ValidateTokenResponse.newBuilder()
+            .setValid(false)
+            .setErrorMessage("Erro interno na validação do token: " + e.getMessage())
+            .build();
     }
 
     @Override
@@ -85,10 +275,11 @@ public void getUserById(GetUserByIdRequest request, StreamObserver<GetUserByIdRe
         log.debug("Consulta de usuário por ID solicitada: {}", request.getUserId());
         
         try {
-            Optional<User> userOpt = userRepository.findById(Long.parseLong(request.getUserId()));
+            // Projeção plana (roles via role_mask): sem instanciar a entidade User nem consultar user_roles
+            Optional<UserRepository.UserSummaryView> userOpt = userRepository.findSummaryById(Long.parseLong(request.getUserId()));
             
             if (userOpt.isPresent()) {
-                User user = userOpt.get();
+                UserRepository.UserSummaryView user = userOpt.get();
                 
                 GetUserByIdResponse response = GetUserByIdResponse.newBuilder()
                     .setFound(true)
@@ -98,9 +289,7 @@ public void getUserById(GetUserByIdRequest request, StreamObserver<GetUserByIdRe
                     .setFirstName(user.getFirstName())
                     .setLastName(user.getLastName())
                     .setActive(user.getActive())
-                    .addAllRoles(user.getRoles().stream()
-                        .map(role -> role.getName().name())
-                        .collect(Collectors.toList()))
+                    .addAllRoles(AuthorityMasks.roleNames(user.getRoleMask()))
                     .setCreatedAt(user.getCreatedAt().toEpochSecond(ZoneOffset.UTC))
                     .setUpdatedAt(user.getUpdatedAt() != null ? user.getUpdatedAt().toEpochSecond(ZoneOffset.UTC) : 0)
                     .build();
@@ -148,12 +337,12 @@ public void hasRole(HasRoleRequest request, StreamObserver<HasRoleResponse> resp
         log.debug("Verificação de role solicitada - Usuário: {}, Role: {}", request.getUserId(), request.getRole());
         
         try {
-            Optional<User> userOpt = userRepository.findById(Long.parseLong(request.getUserId()));
+            // Leitura de uma coluna (role_mask) de uma linha; sem join com user_roles
+            Optional<Integer> roleMask = userRepository.findRoleMaskById(Long.parseLong(request.getUserId()));
             
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                boolean hasRole = user.getRoles().stream()
-                    .anyMatch(role -> role.getName().name().equals(request.getRole()));
+            if (roleMask.isPresent()) {
+                UserRole role = parseRole(request.getRole());
+                boolean hasRole = role != null && (roleMask.get() & AuthorityMasks.roleBit(role)) != 0;
                 
                 HasRoleResponse response = HasRoleResponse.newBuilder()
                     .setHasRole(hasRole)
@@ -201,13 +390,10 @@ public void getUserRoles(GetUserRolesRequest request, StreamObserver<GetUserRole
         log.debug("Consulta de roles do usuário solicitada: {}", request.getUserId());
         
         try {
-            Optional<User> userOpt = userRepository.findById(Long.parseLong(request.getUserId()));
+            Optional<Integer> roleMask = userRepository.findRoleMaskById(Long.parseLong(request.getUserId()));
             
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                List<String> roles = user.getRoles().stream()
-                    .map(role -> role.getName().name())
-                    .collect(Collectors.toList());
+            if (roleMask.isPresent()) {
+                List<String> roles = AuthorityMasks.roleNames(roleMask.get());
                 
                 GetUserRolesResponse response = GetUserRolesResponse.newBuilder()
                     .addAllRoles(roles)
@@ -246,6 +432,83 @@ public void getUserRoles(GetUserRolesRequest request, StreamObserver<GetUserRole
         }
     }
 
+    @Override
+    public void checkPermission(CheckPermissionRequest request, StreamObserver<CheckPermissionResponse> responseObserver) {
+        log.debug("Verificação de permission - Usuário: {}, Permission: {}", request.getUserId(), request.getPermission());
+        
+        responseObserver.onNext(checkPermission(permissionService.getSnapshot(), request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void checkPermissions(CheckPermissionsRequest request, StreamObserver<CheckPermissionsResponse> responseObserver) {
+        int count = request.getChecksCount();
+        log.debug("Verificação de {} permissions solicitada", count);
+
+        if (count > checkPermissionsMaxBatchSize) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Lote de " + count + " verificações excede o limite de " + checkPermissionsMaxBatchSize)
+                .asRuntimeException());
+            return;
+        }
+
+        // Todas as verificações do lote usam o mesmo snapshot de permissions
+        PermissionSnapshot snapshot = permissionService.getSnapshot();
+        CheckPermissionsResponse.Builder response = CheckPermissionsResponse.newBuilder();
+        for (CheckPermissionRequest check : request.getChecksList()) {
+            response.addResults(checkPermission(snapshot, check));
+        }
+
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Verifica uma permission usando apenas dados em memória: índice de roles do usuário
+     * ({@link UserRoleIndex}) e máscara de permissions da combinação de roles ({@link PermissionSnapshot})
+     */
+    private CheckPermissionResponse checkPermission(PermissionSnapshot snapshot, CheckPermissionRequest request) {
+        try {
+            int bit = snapshot.permissionBit(request.getPermission());
+            if (bit < 0) {
+                return deniedPermission("Permission desconhecida: " + request.getPermission());
+            }
+            
+            OptionalInt roleMask = userRoleIndex.getRoleMask(Long.parseLong(request.getUserId()));
+            if (roleMask.isEmpty()) {
+                return deniedPermission("Usuário não encontrado");
+            }
+            
+            boolean allowed = (snapshot.getPermissionMask(roleMask.getAsInt()) & (1L << bit)) != 0;
+            return allowed ? PERMISSION_ALLOWED : PERMISSION_DENIED;
+            
+        } catch (NumberFormatException e) {
+            log.debug("ID de usuário inválido: {}", request.getUserId());
+            return deniedPermission("ID de usuário inválido");
+        } catch (Exception e) {
+            log.error("Erro ao verificar permission do usuário", e);
+            return deniedPermission("Erro interno: " + e.getMessage());
+        }
+    }
+
+    private static CheckPermissionResponse deniedPermission(String errorMessage) {
+        return CheckPermissionResponse.newBuilder()
+            .setAllowed(false)
+            .setErrorMessage(errorMessage)
+            .build();
+    }
+
+    /**
+     * Converte o nome da role recebido no request (null se a role não existe)
+     */
+    private static UserRole parseRole(String role) {
+        try {
+            return UserRole.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     @Override
     public void healthCheck(HealthCheckRequest request, StreamObserver<HealthCheckResponse> responseObserver) {
         log.debug("Health check solicitado pelo serviço: {}", request.getServiceName());
@@ -274,4 +537,89 @@ public void healthCheck(HealthCheckRequest request, StreamObserver<HealthCheckRe
             responseObserver.onCompleted();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Processa um stream de validação de tokens com controle de fluxo manual.
+     *
+     * No máximo max-in-flight tokens ficam pendentes por stream: um novo request só é
+     * solicitado ao cliente depois que uma resposta é efetivamente enviada. Quando o cliente
+     * não consome as respostas (isReady() == false), elas aguardam na fila de saída e a leitura
+     * de novos requests para, propagando o backpressure até o cliente.
+     */
+    private final class TokenValidationStreamHandler implements StreamObserver<ValidateTokenStreamRequest> {
+
+        private final ServerCallStreamObserver<ValidateTokenStreamResponse> responseObserver;
+        private final Queue<ValidateTokenStreamResponse> outbound = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean halfClosed;
+        private boolean completed;
+
+        private TokenValidationStreamHandler(ServerCallStreamObserver<ValidateTokenStreamResponse> responseObserver) {
+            this.responseObserver = responseObserver;
+            responseObserver.disableAutoRequest();
+            responseObserver.setOnReadyHandler(this::drain);
+            responseObserver.setOnCancelHandler(() -> log.debug("Stream de validação cancelado pelo cliente"));
+            responseObserver.request(streamMaxInFlight);
+        }
+
+        @Override
+        public void onNext(ValidateTokenStreamRequest request) {
+            inFlight.incrementAndGet();
+            try {
+                CompletableFuture.supplyAsync(() -> buildValidateTokenResponse(request.getToken()), tokenValidationExecutor)
+                    .whenComplete((result, ex) -> {
+                        outbound.add(ValidateTokenStreamResponse.newBuilder()
+                            .setCorrelationId(request.getCorrelationId())
+                            .setResult(result != null ? result : ValidateTokenResponse.newBuilder()
+                                .setValid(false)
+                                .setErrorMessage("Erro interno na validação do token")
+                                .build())
+                            .build());
+                        drain();
+                    });
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                fail(Status.UNAVAILABLE.withDescription("Serviço de validação indisponível"));
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Stream de validação encerrado com erro: {}", t.getMessage());
+            outbound.clear();
+        }
+
+        @Override
+        public void onCompleted() {
+            halfClosed = true;
+            drain();
+        }
+
+        /**
+         * Envia as respostas prontas enquanto o cliente puder recebê-las; chamadas ao
+         * responseObserver precisam ser serializadas
+         */
+        private synchronized void drain() {
+            if (completed || responseObserver.isCancelled()) {
+                return;
+            }
+            ValidateTokenStreamResponse response;
+            while (responseObserver.isReady() && (response = outbound.poll()) != null) {
+                responseObserver.onNext(response);
+                inFlight.decrementAndGet();
+                responseObserver.request(1);
+            }
+            if (halfClosed && inFlight.get() == 0) {
+                completed = true;
+                responseObserver.onCompleted();
+            }
+        }
+
+        private synchronized void fail(Status status) {
+            if (!completed && !responseObserver.isCancelled()) {
+                completed = true;
+                responseObserver.onError(status.asRuntimeException());
+            }
+        }
+    }
+}
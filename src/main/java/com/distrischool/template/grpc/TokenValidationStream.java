@@ -0,0 +1,165 @@
+package com.distrischool.template.grpc;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream bidirecional de longa duração para validação de tokens (RPC ValidateTokenStream).
+ *
+ * Cada chamada a {@link #validate(String)} envia um request com um correlation id e retorna
+ * imediatamente um {@link CompletableFuture}, completado quando a resposta correspondente
+ * chega (as respostas podem chegar fora de ordem).
+ *
+ * Controle de fluxo: um request é enviado direto apenas se o transporte está pronto (isReady) e
+ * não há requests na fila; caso contrário aguarda na fila de saída, drenada somente pelo
+ * onReady. A fila é limitada (maxQueued): com ela cheia a validação falha imediatamente com
+ * {@link RejectedExecutionException}, em vez de acumular requests sem limite em memória.
+ * Todas as chamadas ao stream de requests (envio, drenagem e {@link #close()}) são serializadas.
+ *
+ * Obtido via {@link AuthGrpcClient#openValidationStream(String)}; feche com {@link #close()}.
+ */
+@Slf4j
+public class TokenValidationStream implements AutoCloseable {
+
+    private final String serviceName;
+    private final Map<String, CompletableFuture<AuthGrpcClient.TokenValidationResult>> pending = new ConcurrentHashMap<>();
+    private final Queue<ValidateTokenStreamRequest> outbound;
+    private final int maxQueued;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile ClientCallStreamObserver<ValidateTokenStreamRequest> requestStream;
+    private volatile boolean closed;
+    private boolean halfClosed;
+
+    TokenValidationStream(AuthServiceGrpc.AuthServiceStub stub, String serviceName, int maxQueued) {
+        this.serviceName = serviceName;
+        this.outbound = new ArrayDeque<>(Math.min(maxQueued, 1024));
+        this.maxQueued = maxQueued;
+        stub.validateTokenStream(new ClientResponseObserver<ValidateTokenStreamRequest, ValidateTokenStreamResponse>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<ValidateTokenStreamRequest> stream) {
+                requestStream = stream;
+                stream.setOnReadyHandler(TokenValidationStream.this::drain);
+            }
+
+            @Override
+            public void onNext(ValidateTokenStreamResponse response) {
+                CompletableFuture<AuthGrpcClient.TokenValidationResult> future = pending.remove(response.getCorrelationId());
+                if (future != null) {
+                    future.complete(AuthGrpcClient.toTokenValidationResult(response.getResult()));
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.error("Erro no stream de validação de tokens: {}", t.getMessage());
+                failPending(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                failPending(new IllegalStateException("Stream de validação encerrado pelo servidor"));
+            }
+        });
+    }
+
+    /**
+     * Envia um token para validação sem bloquear a thread chamadora
+     *
+     * @param token O token JWT a ser validado
+     * @return Future completado com o resultado da validação, ou com erro se o stream falhar,
+     *         estiver fechado ou com a fila de saída cheia
+     */
+    public CompletableFuture<AuthGrpcClient.TokenValidationResult> validate(String token) {
+        String correlationId = Long.toString(sequence.incrementAndGet());
+        ValidateTokenStreamRequest request = ValidateTokenStreamRequest.newBuilder()
+            .setCorrelationId(correlationId)
+            .setToken(token)
+            .setServiceName(serviceName)
+            .build();
+        CompletableFuture<AuthGrpcClient.TokenValidationResult> future = new CompletableFuture<>();
+
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Stream de validação fechado"));
+            }
+            if (outbound.isEmpty() && requestStream.isReady()) {
+                pending.put(correlationId, future);
+                requestStream.onNext(request);
+            } else if (outbound.size() < maxQueued) {
+                pending.put(correlationId, future);
+                outbound.add(request);
+            } else {
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Fila de envio do stream de validação cheia (" + maxQueued + " requests)"));
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Número de validações aguardando resposta
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Encerra o envio: novas validações são rejeitadas, os requests na fila ainda são enviados
+     * (conforme o transporte fica pronto) e as respostas já solicitadas continuam chegando
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        halfCloseIfDrained();
+    }
+
+    /**
+     * Handler de onReady: envia os requests da fila enquanto o transporte estiver pronto
+     */
+    private synchronized void drain() {
+        if (halfClosed) {
+            return;
+        }
+        ValidateTokenStreamRequest request;
+        while (requestStream.isReady() && (request = outbound.poll()) != null) {
+            requestStream.onNext(request);
+        }
+        if (closed) {
+            halfCloseIfDrained();
+        }
+    }
+
+    private void halfCloseIfDrained() {
+        if (!halfClosed && outbound.isEmpty()) {
+            halfClosed = true;
+            requestStream.onCompleted();
+        }
+    }
+
+    private void failPending(Throwable cause) {
+        synchronized (this) {
+            closed = true;
+            halfClosed = true;
+            outbound.clear();
+        }
+        pending.keySet().forEach(id -> {
+            CompletableFuture<AuthGrpcClient.TokenValidationResult> future = pending.remove(id);
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        });
+    }
+}
@@ -6,6 +6,8 @@
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -26,10 +28,12 @@ public class Auth0EventProducer {
     private final AuthMetricsRecorder metricsRecorder;
     
     // Tópicos específicos para eventos de autenticação
-    private static final String USER_CREATED_TOPIC = "distrischool.auth.user.created";
-    private static final String USER_LOGGED_TOPIC = "distrischool.auth.user.logged";
-    private static final String USER_UPDATED_TOPIC = "distrischool.auth.user.updated";
-    private static final String USER_DEACTIVATED_TOPIC = "distrischool.auth.user.deactivated";
+    public static final String USER_CREATED_TOPIC = "distrischool.auth.user.created";
+    public static final String USER_LOGGED_TOPIC = "distrischool.auth.user.logged";
+    public static final String USER_UPDATED_TOPIC = "distrischool.auth.user.updated";
+    public static final String USER_DEACTIVATED_TOPIC = "distrischool.auth.user.deactivated";
+    public static final String PERMISSIONS_CHANGED_TOPIC = "distrischool.auth.permissions.changed";
+    public static final String TOKEN_REVOKED_TOPIC = "distrischool.auth.token.revoked";
 
     /**
      * Publica evento de usuário criado via Auth0
@@ -72,13 +76,15 @@ public void publishUserLogged(Long userId, String email, String auth0Id) {
     /**
      * Publica evento de usuário atualizado via Auth0
      */
-    public void publishUserUpdated(Long userId, String email, String auth0Id, String firstName, String lastName) {
+    public void publishUserUpdated(Long userId, String email, String auth0Id, String firstName, String lastName,
+                                   int authzEpoch) {
         Map<String, Object> data = new HashMap<>();
         data.put("userId", userId.toString());
         data.put("email", email);
         data.put("auth0Id", auth0Id);
         data.put("firstName", firstName);
         data.put("lastName", lastName);
+        data.put("authzEpoch", authzEpoch);
         
         UserUpdatedEvent event = new UserUpdatedEvent(data);
         event.setEventId(UUID.randomUUID().toString());
@@ -92,12 +98,13 @@ public void publishUserUpdated(Long userId, String email, String auth0Id, String
     /**
      * Publica evento de usuário desativado via Auth0
      */
-    public void publishUserDeactivated(Long userId, String email, String auth0Id, String reason) {
+    public void publishUserDeactivated(Long userId, String email, String auth0Id, String reason, int authzEpoch) {
         Map<String, Object> data = new HashMap<>();
         data.put("userId", userId.toString());
         data.put("email", email);
         data.put("auth0Id", auth0Id);
         data.put("reason", reason);
+        data.put("authzEpoch", authzEpoch);
         
         UserDeactivatedEvent event = new UserDeactivatedEvent(data);
         event.setEventId(UUID.randomUUID().toString());
@@ -109,9 +116,59 @@ public void publishUserDeactivated(Long userId, String email, String auth0Id, St
     }
 
     /**
-     * Envia um evento de autenticação para um tópico específico
+     * Publica evento de alteração do modelo de permissions (recarrega o snapshot em todos os pods)
+     */
+    public void publishPermissionsChanged(String changedBy) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("changedBy", changedBy);
+        
+        PermissionsChangedEvent event = new PermissionsChangedEvent(data);
+        event.setEventId(UUID.randomUUID().toString());
+        event.setEventType("PERMISSIONS_CHANGED");
+        event.setTimestamp(LocalDateTime.now());
+        event.setSource("AUTH0");
+        
+        sendEvent(PERMISSIONS_CHANGED_TOPIC, event);
+    }
+
+    /**
+     * Publica evento de token revogado (adiciona o jti à denylist de todos os pods)
+     */
+    public void publishTokenRevoked(String tokenId, String auth0Id, String revokedBy) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("jti", tokenId);
+        data.put("auth0Id", auth0Id);
+        data.put("revokedBy", revokedBy);
+        
+        TokenRevokedEvent event = new TokenRevokedEvent(data);
+        event.setEventId(UUID.randomUUID().toString());
+        event.setEventType("TOKEN_REVOKED");
+        event.setTimestamp(LocalDateTime.now());
+        event.setSource("AUTH0");
+        
+        sendEvent(TOKEN_REVOKED_TOPIC, event);
+    }
+
+    /**
+     * Envia um evento de autenticação para um tópico específico.
+     * Dentro de uma transação, o envio acontece apenas após o commit (e é descartado em caso de
+     * rollback): os consumidores, inclusive os índices em memória dos outros pods, releem o
+     * usuário do banco ao receber o evento.
      */
     private void sendEvent(String topic, AuthEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(topic, event);
+                }
+            });
+            return;
+        }
+        send(topic, event);
+    }
+
+    private void send(String topic, AuthEvent event) {
         log.info("Enviando evento de autenticação Auth0 para tópico '{}': {}", topic, event.getEventType());
         
         try {
@@ -0,0 +1,46 @@
+package com.distrischool.template.kafka.auth;
+
+import com.distrischool.template.security.AuthzEpochIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantém o {@link AuthzEpochIndex} atualizado entre pods com a época de autorização
+ * carregada pelos eventos de alteração e desativação de usuários.
+ *
+ * Cada instância usa um group id próprio para receber todos os eventos (broadcast) e começa
+ * a ler do offset mais recente: o índice completo já é carregado do banco no startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthzEpochIndexListener {
+
+    private final AuthzEpochIndex authzEpochIndex;
+
+    @KafkaListener(
+        topics = {Auth0EventProducer.USER_UPDATED_TOPIC, Auth0EventProducer.USER_DEACTIVATED_TOPIC},
+        groupId = "${spring.application.name}-authz-epoch-index-${random.uuid}",
+        containerFactory = "authEventKafkaListenerContainerFactory",
+        concurrency = "1",
+        properties = "auto.offset.reset=latest"
+    )
+    public void onUserChanged(AuthEvent event, Acknowledgment acknowledgment) {
+        try {
+            Object userId = event.getData() != null ? event.getData().get("userId") : null;
+            Object authzEpoch = event.getData() != null ? event.getData().get("authzEpoch") : null;
+            if (userId != null && authzEpoch instanceof Number epoch) {
+                authzEpochIndex.update(Long.valueOf(userId.toString()), epoch.intValue());
+                log.debug("Época de autorização do usuário {} atualizada após evento {}: {}",
+                    userId, event.getEventType(), epoch);
+            }
+        } catch (Exception e) {
+            log.error("Erro ao processar evento {} para o índice de épocas de autorização: {}", event.getEventType(), e.getMessage(), e);
+        } finally {
+            acknowledgment.acknowledge();
+        }
+    }
+}
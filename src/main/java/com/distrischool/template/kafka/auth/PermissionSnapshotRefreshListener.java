@@ -0,0 +1,44 @@
+package com.distrischool.template.kafka.auth;
+
+import com.distrischool.template.service.PermissionService;
+import com.distrischool.template.service.RoleRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recarrega o snapshot de permissions do {@link PermissionService} e o {@link RoleRegistry}
+ * quando o modelo é alterado em qualquer pod.
+ *
+ * Cada instância usa um group id próprio para receber todos os eventos (broadcast) e começa
+ * a ler do offset mais recente: o snapshot já é carregado do banco no startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionSnapshotRefreshListener {
+
+    private final PermissionService permissionService;
+    private final RoleRegistry roleRegistry;
+
+    @KafkaListener(
+        topics = Auth0EventProducer.PERMISSIONS_CHANGED_TOPIC,
+        groupId = "${spring.application.name}-permissions-${random.uuid}",
+        containerFactory = "authEventKafkaListenerContainerFactory",
+        concurrency = "1",
+        properties = "auto.offset.reset=latest"
+    )
+    public void onPermissionsChanged(AuthEvent event, Acknowledgment acknowledgment) {
+        try {
+            log.debug("Recarregando snapshot de permissions após evento {}", event.getEventType());
+            permissionService.reload();
+            roleRegistry.reload();
+        } catch (Exception e) {
+            log.error("Erro ao processar evento {} para o snapshot de permissions: {}", event.getEventType(), e.getMessage(), e);
+        } finally {
+            acknowledgment.acknowledge();
+        }
+    }
+}
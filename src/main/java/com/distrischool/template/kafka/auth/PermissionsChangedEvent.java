@@ -0,0 +1,25 @@
+package com.distrischool.template.kafka.auth;
+
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Evento publicado quando o modelo de permissions (tabelas permissions e role_permissions) é alterado.
+ * Cada instância do serviço de autenticação recarrega o seu snapshot em memória ao recebê-lo.
+ */
+public class PermissionsChangedEvent extends AuthEvent {
+    
+    public PermissionsChangedEvent() {
+        super("permissions.changed", new HashMap<>());
+    }
+    
+    public PermissionsChangedEvent(Map<String, Object> data) {
+        this.eventId = java.util.UUID.randomUUID().toString();
+        this.eventType = "permissions.changed";
+        this.source = "auth-service";
+        this.version = "1.0";
+        this.timestamp = java.time.LocalDateTime.now();
+        this.data = data;
+    }
+}
@@ -0,0 +1,43 @@
+package com.distrischool.template.kafka.auth;
+
+import com.distrischool.template.security.PrincipalCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propaga alterações de usuários entre pods, removendo o usuário do {@link PrincipalCache}.
+ *
+ * Cada instância usa um group id próprio para receber todos os eventos (broadcast) e começa
+ * a ler do offset mais recente: eventos anteriores ao startup não afetam um cache vazio.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrincipalCacheInvalidationListener {
+
+    private final PrincipalCache principalCache;
+
+    @KafkaListener(
+        topics = {Auth0EventProducer.USER_UPDATED_TOPIC, Auth0EventProducer.USER_DEACTIVATED_TOPIC},
+        groupId = "${spring.application.name}-principal-cache-${random.uuid}",
+        containerFactory = "authEventKafkaListenerContainerFactory",
+        concurrency = "1",
+        properties = "auto.offset.reset=latest"
+    )
+    public void onUserChanged(AuthEvent event, Acknowledgment acknowledgment) {
+        try {
+            Object auth0Id = event.getData() != null ? event.getData().get("auth0Id") : null;
+            if (auth0Id != null) {
+                principalCache.evict(auth0Id.toString());
+                log.debug("Principal removido do cache após evento {}: {}", event.getEventType(), auth0Id);
+            }
+        } catch (Exception e) {
+            log.error("Erro ao processar evento {} para o cache de principals: {}", event.getEventType(), e.getMessage(), e);
+        } finally {
+            acknowledgment.acknowledge();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.distrischool.template.kafka.auth;
+
+import com.distrischool.template.security.TokenDenylist;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replica as revogações de tokens entre pods, adicionando-as aos Bloom filters da
+ * {@link TokenDenylist} (o registro no Redis já foi feito pelo pod que revogou).
+ *
+ * - distrischool.auth.user.deactivated: revoga todos os tokens do usuário (auth0Id)
+ * - distrischool.auth.token.revoked: revoga um token específico (jti)
+ *
+ * Cada instância usa um group id próprio para receber todos os eventos (broadcast) e começa
+ * a ler do offset mais recente: revogações anteriores ao startup são carregadas do Redis.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenDenylistListener {
+
+    private final TokenDenylist tokenDenylist;
+
+    @KafkaListener(
+        topics = {Auth0EventProducer.USER_DEACTIVATED_TOPIC, Auth0EventProducer.TOKEN_REVOKED_TOPIC},
+        groupId = "${spring.application.name}-token-denylist-${random.uuid}",
+        containerFactory = "authEventKafkaListenerContainerFactory",
+        concurrency = "1",
+        properties = "auto.offset.reset=latest"
+    )
+    public void onRevocation(AuthEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                             Acknowledgment acknowledgment) {
+        try {
+            if (event.getData() == null) {
+                return;
+            }
+            if (Auth0EventProducer.TOKEN_REVOKED_TOPIC.equals(topic)) {
+                Object tokenId = event.getData().get("jti");
+                if (tokenId != null) {
+                    tokenDenylist.addToken(tokenId.toString());
+                    log.debug("Token adicionado à denylist após evento {}: {}", event.getEventType(), tokenId);
+                }
+            } else {
+                Object auth0Id = event.getData().get("auth0Id");
+                if (auth0Id != null) {
+                    tokenDenylist.addSubject(auth0Id.toString());
+                    log.debug("Subject adicionado à denylist após evento {}: {}", event.getEventType(), auth0Id);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Erro ao processar evento {} para a denylist de tokens: {}", event.getEventType(), e.getMessage(), e);
+        } finally {
+            acknowledgment.acknowledge();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.distrischool.template.kafka.auth;
+
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Evento publicado quando um token específico (jti) é revogado.
+ * Cada instância do serviço de autenticação adiciona o token à sua denylist local ao recebê-lo.
+ */
+public class TokenRevokedEvent extends AuthEvent {
+    
+    public TokenRevokedEvent() {
+        super("token.revoked", new HashMap<>());
+    }
+    
+    public TokenRevokedEvent(Map<String, Object> data) {
+        this.eventId = java.util.UUID.randomUUID().toString();
+        this.eventType = "token.revoked";
+        this.source = "auth-service";
+        this.version = "1.0";
+        this.timestamp = java.time.LocalDateTime.now();
+        this.data = data;
+    }
+}
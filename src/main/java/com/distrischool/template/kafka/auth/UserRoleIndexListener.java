@@ -0,0 +1,45 @@
+package com.distrischool.template.kafka.auth;
+
+import com.distrischool.template.security.UserRoleIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantém o {@link UserRoleIndex} atualizado entre pods, recarregando o usuário a cada evento
+ * de criação, alteração ou desativação.
+ *
+ * Cada instância usa um group id próprio para receber todos os eventos (broadcast) e começa
+ * a ler do offset mais recente: o índice completo já é carregado do banco no startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserRoleIndexListener {
+
+    private final UserRoleIndex userRoleIndex;
+
+    @KafkaListener(
+        topics = {Auth0EventProducer.USER_CREATED_TOPIC, Auth0EventProducer.USER_UPDATED_TOPIC,
+            Auth0EventProducer.USER_DEACTIVATED_TOPIC},
+        groupId = "${spring.application.name}-user-role-index-${random.uuid}",
+        containerFactory = "authEventKafkaListenerContainerFactory",
+        concurrency = "1",
+        properties = "auto.offset.reset=latest"
+    )
+    public void onUserChanged(AuthEvent event, Acknowledgment acknowledgment) {
+        try {
+            Object userId = event.getData() != null ? event.getData().get("userId") : null;
+            if (userId != null) {
+                userRoleIndex.refresh(Long.valueOf(userId.toString()));
+                log.debug("Índice de roles atualizado após evento {}: usuário {}", event.getEventType(), userId);
+            }
+        } catch (Exception e) {
+            log.error("Erro ao processar evento {} para o índice de roles: {}", event.getEventType(), e.getMessage(), e);
+        } finally {
+            acknowledgment.acknowledge();
+        }
+    }
+}
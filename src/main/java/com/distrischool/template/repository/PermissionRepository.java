@@ -0,0 +1,39 @@
+package com.distrischool.template.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.distrischool.template.entity.Permission;
+import com.distrischool.template.entity.UserRole;
+
+/**
+ * Repository para operações de banco de dados relacionadas à entidade Permission.
+ * Usado apenas para montar o snapshot em memória do PermissionService.
+ */
+@Repository
+public interface PermissionRepository extends JpaRepository<Permission, Long> {
+
+    /**
+     * Busca permissions ativas que não foram excluídas logicamente
+     */
+    @Query("SELECT p FROM Permission p WHERE p.active = true AND p.deletedAt IS NULL")
+    List<Permission> findAllActivePermissions();
+
+    /**
+     * Busca os pares role/permission ativos (projeção, sem carregar as entidades)
+     */
+    @Query("SELECT r.name AS role, p.name AS permission FROM Role r JOIN r.permissions p " +
+           "WHERE r.active = true AND r.deletedAt IS NULL AND p.active = true AND p.deletedAt IS NULL")
+    List<RolePermissionView> findActiveRolePermissions();
+
+    /**
+     * Projeção de um par role/permission
+     */
+    interface RolePermissionView {
+        UserRole getRole();
+        String getPermission();
+    }
+}
@@ -2,12 +2,14 @@
 
 import com.distrischool.template.entity.User;
 import com.distrischool.template.entity.UserRole;
+import com.distrischool.template.security.AuthorityMasks;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -66,10 +68,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findAllActiveUsers();
 
     /**
-     * Busca usuários por role
+     * Busca usuários por role (filtro sobre a coluna role_mask, sem join com user_roles)
      */
-    @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = :role AND u.active = true AND u.deletedAt IS NULL")
-    List<User> findByRole(@Param("role") UserRole role);
+    default List<User> findByRole(UserRole role) {
+        return findActiveByRoleMaskIn(AuthorityMasks.roleMasksWith(role));
+    }
+
+    /**
+     * Busca usuários ativos cuja máscara de roles é uma das informadas
+     */
+    @Query("SELECT u FROM User u WHERE u.roleMask IN :roleMasks AND u.active = true AND u.deletedAt IS NULL")
+    List<User> findActiveByRoleMaskIn(@Param("roleMasks") Collection<Integer> roleMasks);
 
 
     /**
@@ -85,15 +94,83 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findUsersLoggedInSince(@Param("since") LocalDateTime since);
 
     /**
-     * Conta usuários ativos por role
+     * Conta usuários ativos por role (filtro sobre a coluna role_mask, sem join com user_roles)
+     */
+    default Long countActiveUsersByRole(UserRole role) {
+        return countActiveByRoleMaskIn(AuthorityMasks.roleMasksWith(role));
+    }
+
+    /**
+     * Conta usuários ativos cuja máscara de roles é uma das informadas
      */
-    @Query("SELECT COUNT(u) FROM User u JOIN u.roles r WHERE r.name = :role AND u.active = true AND u.deletedAt IS NULL")
-    Long countActiveUsersByRole(@Param("role") UserRole role);
+    @Query("SELECT COUNT(u) FROM User u WHERE u.roleMask IN :roleMasks AND u.active = true AND u.deletedAt IS NULL")
+    Long countActiveByRoleMaskIn(@Param("roleMasks") Collection<Integer> roleMasks);
 
     /**
      * Busca usuário para autenticação (local auth only - Auth0 handles verification)
      */
     @Query("SELECT u FROM User u WHERE u.email = :email AND u.active = true AND u.deletedAt IS NULL")
     Optional<User> findForAuthentication(@Param("email") String email);
-}
 
+    /**
+     * Busca as máscaras de roles de todos os usuários ativos (projeção)
+     */
+    @Query("SELECT u.id AS userId, u.roleMask AS roleMask FROM User u WHERE u.active = true AND u.deletedAt IS NULL")
+    List<UserRoleMaskView> findActiveUserRoleMasks();
+
+    /**
+     * Busca a máscara de roles de um usuário ativo (vazio se o usuário não existe ou está inativo)
+     */
+    @Query("SELECT u.roleMask FROM User u WHERE u.id = :userId AND u.active = true AND u.deletedAt IS NULL")
+    Optional<Integer> findActiveRoleMaskById(@Param("userId") Long userId);
+
+    /**
+     * Busca as épocas de autorização já incrementadas (projeção; usuários com época 0 não são retornados)
+     */
+    @Query("SELECT u.id AS userId, u.authzEpoch AS authzEpoch FROM User u WHERE u.authzEpoch > 0")
+    List<UserAuthzEpochView> findIncrementedAuthzEpochs();
+
+    /**
+     * Busca a máscara de roles do usuário (uma coluna de uma linha, sem carregar a entidade nem user_roles)
+     */
+    @Query("SELECT u.roleMask FROM User u WHERE u.id = :userId")
+    Optional<Integer> findRoleMaskById(@Param("userId") Long userId);
+
+    /**
+     * Busca os dados do usuário expostos via gRPC (projeção plana, sem carregar a entidade)
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.firstName AS firstName, u.lastName AS lastName, " +
+           "u.active AS active, u.createdAt AS createdAt, u.updatedAt AS updatedAt, u.roleMask AS roleMask " +
+           "FROM User u WHERE u.id = :userId")
+    Optional<UserSummaryView> findSummaryById(@Param("userId") Long userId);
+
+    /**
+     * Projeção plana dos dados do usuário
+     */
+    interface UserSummaryView {
+        Long getId();
+        String getEmail();
+        String getFirstName();
+        String getLastName();
+        Boolean getActive();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        Integer getRoleMask();
+    }
+
+    /**
+     * Projeção de um par usuário/época de autorização
+     */
+    interface UserAuthzEpochView {
+        Long getUserId();
+        Integer getAuthzEpoch();
+    }
+
+    /**
+     * Projeção de um par usuário/máscara de roles
+     */
+    interface UserRoleMaskView {
+        Long getUserId();
+        Integer getRoleMask();
+    }
+}
@@ -1,19 +1,31 @@
 package com.distrischool.template.security;
 
 import com.auth0.jwk.Jwk;
-import com.auth0.jwk.JwkProvider;
-import com.auth0.jwk.JwkProviderBuilder;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.distrischool.template.config.Auth0Config;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Valida tokens JWT emitidos pelo Auth0.
@@ -23,54 +35,106 @@
  * 1. Busca a chave pública do Auth0 via JWK
  * 2. Valida a assinatura do token
  * 3. Valida issuer, audience, expiração
+ *
+ * Um {@link JWTVerifier} pronto é mantido por kid em um snapshot imutável, então a validação
+ * de um token não constrói nenhum objeto criptográfico. O JWKS é recarregado em background
+ * (app.auth.auth0.jwks.refresh-interval), antes que as chaves fiquem desatualizadas.
+ *
+ * Um kid desconhecido (rotação de chaves no Auth0) dispara um único refresh compartilhado
+ * entre todas as threads (single-flight), limitado a um por min-refresh-interval. As threads
+ * de requisição esperam no máximo unknown-kid-wait pelo resultado.
+ *
+ * As chaves vêm de um {@link JwksSource} (Auth0, stand-in HTTP local ou arquivo JWKS, ver
+ * JwksSourceConfig). Origens locais são carregadas já no startup e recarregadas assim que
+ * o arquivo muda (verificado a cada change-poll-interval).
  */
 @Component
 @Slf4j
 public class Auth0JwtValidator {
 
-    private final JwkProvider jwkProvider;
+    private final JwksSource jwksSource;
+    private final TokenValidationCache tokenValidationCache;
     private final String audience;
     private final String issuer;
+    private final long minRefreshIntervalNanos;
+    private final Duration unknownKidWait;
+    private final ScheduledExecutorService refreshExecutor;
 
-    public Auth0JwtValidator(Auth0Config auth0Config) {
-        // Auth0 JWK endpoint: https://{domain}/.well-known/jwks.json
-        String jwkUrl = String.format("https://%s/", auth0Config.getDomain());
-        
-        // Cache JWKs por 10 minutos (para performance)
-        this.jwkProvider = new JwkProviderBuilder(jwkUrl)
-            .cached(10, 24, TimeUnit.HOURS)
-            .rateLimited(10, 1, TimeUnit.MINUTES)
-            .build();
-        
+    private final AtomicReference<CompletableFuture<Map<String, JWTVerifier>>> inFlightRefresh = new AtomicReference<>();
+    private volatile Map<String, JWTVerifier> verifiers = Map.of();
+    private volatile Map<String, String> keyFingerprints = Map.of();
+    private volatile long nextRefreshAllowedNanos = System.nanoTime();
+    private volatile long loadedVersion = -1L;
+
+    public Auth0JwtValidator(
+            Auth0Config auth0Config,
+            JwksSource jwksSource,
+            TokenValidationCache tokenValidationCache,
+            @Value("${app.auth.auth0.jwks.refresh-interval:PT10M}") Duration refreshInterval,
+            @Value("${app.auth.auth0.jwks.min-refresh-interval:PT10S}") Duration minRefreshInterval,
+            @Value("${app.auth.auth0.jwks.unknown-kid-wait:PT2S}") Duration unknownKidWait,
+            @Value("${app.auth.auth0.jwks.change-poll-interval:PT5S}") Duration changePollInterval
+    ) {
+        this.jwksSource = jwksSource;
+        this.tokenValidationCache = tokenValidationCache;
         this.audience = auth0Config.getAudience();
         this.issuer = String.format("https://%s/", auth0Config.getDomain());
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.unknownKidWait = unknownKidWait;
+
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth0-jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long initialDelay = 0;
+        if (jwksSource.isLocal()) {
+            // Origem local: chaves carregadas antes da primeira requisição
+            try {
+                refreshKeys().join();
+            } catch (CompletionException e) {
+                // Falha já registrada em loadKeys
+            }
+            initialDelay = refreshInterval.toMillis();
+        }
+        refreshExecutor.scheduleWithFixedDelay(this::refreshKeys,
+            initialDelay, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (jwksSource.version() >= 0) {
+            refreshExecutor.scheduleWithFixedDelay(this::reloadIfChanged,
+                changePollInterval.toMillis(), changePollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
         
-        log.info("Auth0 JWT Validator inicializado: issuer={}, audience={}", issuer, audience);
+        log.info("Auth0 JWT Validator inicializado: issuer={}, audience={}, jwks={}, jwksRefresh={}",
+            issuer, audience, jwksSource.describe(), refreshInterval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
     }
 
     /**
      * Valida um token JWT do Auth0
      */
     public DecodedJWT validateToken(String token) throws JWTVerificationException {
+        // Decodifica o token (sem validação) para obter o kid (Key ID)
+        return validateToken(JWT.decode(token));
+    }
+
+    /**
+     * Valida um token JWT do Auth0 já decodificado (evita decodificar o token novamente)
+     */
+    public DecodedJWT validateToken(DecodedJWT jwt) throws JWTVerificationException {
         try {
-            // Decodifica o token (sem validação) para obter o kid (Key ID)
-            DecodedJWT jwt = JWT.decode(token);
-            
-            // Busca a chave pública correspondente ao kid
-            Jwk jwk = jwkProvider.get(jwt.getKeyId());
-            
-            // Obtém a chave pública RSA
-            RSAPublicKey publicKey = (RSAPublicKey) jwk.getPublicKey();
-            
-            // Cria o algoritmo com a chave pública
-            Algorithm algorithm = Algorithm.RSA256(publicKey, null);
-            
+            // Busca o verifier pré-construído correspondente ao kid
+            JWTVerifier verifier = findVerifier(jwt.getKeyId());
+            if (verifier == null) {
+                throw new JWTVerificationException("Chave de assinatura desconhecida: kid=" + jwt.getKeyId());
+            }
+
             // Valida o token com todas as verificações
-            DecodedJWT verifiedJWT = JWT.require(algorithm)
-                .withIssuer(issuer)
-                .withAudience(audience)
-                .build()
-                .verify(token);
+            DecodedJWT verifiedJWT = verifier.verify(jwt);
             
             log.debug("Token Auth0 validado com sucesso: sub={}", verifiedJWT.getSubject());
             return verifiedJWT;
@@ -84,6 +148,134 @@ public DecodedJWT validateToken(String token) throws JWTVerificationException {
         }
     }
 
+    /**
+     * Busca o verifier do kid no snapshot atual. Se o kid for desconhecido, aguarda
+     * (por tempo limitado) um refresh do JWKS, respeitando o intervalo mínimo entre buscas.
+     */
+    private JWTVerifier findVerifier(String kid) {
+        JWTVerifier verifier = lookup(verifiers, kid);
+        if (verifier != null) {
+            return verifier;
+        }
+
+        CompletableFuture<Map<String, JWTVerifier>> refresh = inFlightRefresh.get();
+        if (refresh == null) {
+            if (System.nanoTime() - nextRefreshAllowedNanos < 0) {
+                log.debug("Kid desconhecido {} ignorado: JWKS atualizado recentemente", kid);
+                return null;
+            }
+            refresh = refreshKeys();
+        }
+
+        try {
+            return lookup(refresh.get(unknownKidWait.toMillis(), TimeUnit.MILLISECONDS), kid);
+        } catch (TimeoutException e) {
+            log.warn("Tempo esgotado aguardando refresh do JWKS para kid={}", kid);
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Tokens sem kid só são aceitos quando o JWKS possui uma única chave
+     */
+    private static JWTVerifier lookup(Map<String, JWTVerifier> snapshot, String kid) {
+        if (kid == null) {
+            return snapshot.size() == 1 ? snapshot.values().iterator().next() : null;
+        }
+        return snapshot.get(kid);
+    }
+
+    /**
+     * Recarrega as chaves quando a versão da origem (ex.: lastModified do arquivo) muda
+     */
+    private void reloadIfChanged() {
+        if (jwksSource.version() != loadedVersion) {
+            log.info("JWKS alterado em {}, recarregando chaves", jwksSource.describe());
+            refreshKeys();
+        }
+    }
+
+    /**
+     * Dispara um refresh do JWKS, ou retorna o refresh já em andamento (single-flight)
+     */
+    private CompletableFuture<Map<String, JWTVerifier>> refreshKeys() {
+        while (true) {
+            CompletableFuture<Map<String, JWTVerifier>> current = inFlightRefresh.get();
+            if (current != null) {
+                return current;
+            }
+            CompletableFuture<Map<String, JWTVerifier>> refresh = new CompletableFuture<>();
+            if (inFlightRefresh.compareAndSet(null, refresh)) {
+                try {
+                    refreshExecutor.execute(() -> loadKeys(refresh));
+                } catch (RuntimeException e) {
+                    inFlightRefresh.compareAndSet(refresh, null);
+                    refresh.completeExceptionally(e);
+                }
+                return refresh;
+            }
+        }
+    }
+
+    private void loadKeys(CompletableFuture<Map<String, JWTVerifier>> refresh) {
+        try {
+            long version = jwksSource.version();
+            Map<String, String> fingerprints = new HashMap<>();
+            Map<String, JWTVerifier> loaded = fetchVerifiers(fingerprints);
+            Map<String, String> previousFingerprints = keyFingerprints;
+            this.verifiers = loaded;
+            this.keyFingerprints = Map.copyOf(fingerprints);
+            this.loadedVersion = version;
+            log.info("JWKS do Auth0 carregado: kids={}", loaded.keySet());
+            // Tokens em cache verificados com chaves removidas do JWKS deixam de ser aceitos
+            tokenValidationCache.invalidateKeys(ValidatedToken.TokenType.AUTH0,
+                TokenValidationCache.removedKeys(previousFingerprints, fingerprints));
+            refresh.complete(loaded);
+        } catch (Exception e) {
+            // Mantém as chaves atuais se o JWKS estiver indisponível
+            log.warn("Falha ao carregar JWKS do Auth0, mantendo chaves atuais: {}", e.getMessage());
+            refresh.completeExceptionally(e);
+        } finally {
+            nextRefreshAllowedNanos = System.nanoTime() + minRefreshIntervalNanos;
+            inFlightRefresh.compareAndSet(refresh, null);
+        }
+    }
+
+    /**
+     * Busca o JWKS e constrói um verifier RS256 para cada chave de assinatura
+     *
+     * @param fingerprints Preenchido com o fingerprint do material de cada chave carregada
+     */
+    private Map<String, JWTVerifier> fetchVerifiers(Map<String, String> fingerprints) throws Exception {
+        Map<String, JWTVerifier> loaded = new HashMap<>();
+        for (Jwk jwk : jwksSource.load()) {
+            if (!"RSA".equals(jwk.getType()) || (jwk.getUsage() != null && !"sig".equals(jwk.getUsage()))) {
+                continue;
+            }
+            try {
+                RSAPublicKey publicKey = (RSAPublicKey) jwk.getPublicKey();
+                Algorithm algorithm = Algorithm.RSA256(publicKey, null);
+                loaded.put(jwk.getId(), JWT.require(algorithm)
+                    .withIssuer(issuer)
+                    .withAudience(audience)
+                    .build());
+                fingerprints.put(jwk.getId(),
+                    TokenHashes.sha256(Base64.getEncoder().encodeToString(publicKey.getEncoded())));
+            } catch (Exception e) {
+                log.warn("Chave JWKS ignorada: kid={}, erro={}", jwk.getId(), e.getMessage());
+            }
+        }
+        if (loaded.isEmpty()) {
+            throw new IllegalStateException("JWKS não contém chaves RSA de assinatura");
+        }
+        return Map.copyOf(loaded);
+    }
+
     /**
      * Extrai informações do token sem validar (use com cuidado!)
      */
@@ -0,0 +1,163 @@
+package com.distrischool.template.security;
+
+import com.distrischool.template.entity.UserRole;
+
+import java.util.*;
+
+/**
+ * Tabela compartilhada de bits de roles e permissions usada no formato compacto dos tokens
+ * enriquecidos (claims {@code ver}, {@code rmask} e {@code pmask}).
+ *
+ * O bit de cada role é o seu {@link UserRole#ordinal()}. O bit de cada permission vem da coluna
+ * {@code permissions.bit} (ver {@link PermissionSnapshot}); {@link #PERMISSIONS} é a tabela padrão,
+ * semeada pela migração V7. Como tokens emitidos continuam válidos até o exp, bits nunca são
+ * reutilizados ou reordenados; uma mudança incompatível exige um novo {@link #FORMAT_VERSION}.
+ * O auth-client mantém uma cópia da tabela padrão para a mesma versão.
+ */
+public final class AuthorityMasks {
+
+    /**
+     * Formato original: roles e permissions como arrays de strings
+     */
+    public static final int LEGACY_FORMAT_VERSION = 1;
+
+    /**
+     * Formato compacto: roles e permissions como máscaras de bits
+     */
+    public static final int FORMAT_VERSION = 2;
+
+    public static final String VERSION_CLAIM = "ver";
+    public static final String ROLE_MASK_CLAIM = "rmask";
+    public static final String PERMISSION_MASK_CLAIM = "pmask";
+
+    /**
+     * Permissions padrão; o índice de cada uma é o seu bit na máscara
+     */
+    public static final List<String> PERMISSIONS = List.of(
+        // Teachers
+        "read:teachers",
+        "write:teachers",
+        "delete:teachers",
+        // Students
+        "read:students",
+        "write:students",
+        "delete:students",
+        // Classes/Grades
+        "read:classes",
+        "write:classes",
+        "delete:classes",
+        // Grades
+        "read:grades",
+        "write:grades",
+        "delete:grades",
+        // Attendance
+        "read:attendance",
+        "write:attendance",
+        // Reports
+        "read:reports",
+        "write:reports",
+        // Users
+        "read:users",
+        "write:users",
+        "delete:users"
+    );
+
+    private static final UserRole[] ROLES = UserRole.values();
+
+    /**
+     * Número de combinações possíveis de roles (tamanho das tabelas indexadas por máscara de roles)
+     */
+    public static final int ROLE_COMBINATIONS = 1 << ROLES.length;
+
+    private static final Map<String, UserRole> ROLES_BY_NAME = new HashMap<>();
+    private static final List<String>[] ROLE_NAMES_BY_MASK;
+    private static final Map<UserRole, List<Integer>> ROLE_MASKS_WITH_ROLE = new EnumMap<>(UserRole.class);
+
+    static {
+        for (UserRole role : ROLES) {
+            ROLES_BY_NAME.put(role.name(), role);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<String>[] roleNames = new List[ROLE_COMBINATIONS];
+        for (int mask = 0; mask < ROLE_COMBINATIONS; mask++) {
+            List<String> names = new ArrayList<>();
+            for (UserRole role : ROLES) {
+                if ((mask & roleBit(role)) != 0) {
+                    names.add(role.name());
+                }
+            }
+            roleNames[mask] = List.copyOf(names);
+        }
+        ROLE_NAMES_BY_MASK = roleNames;
+
+        for (UserRole role : ROLES) {
+            List<Integer> masks = new ArrayList<>();
+            for (int mask = 0; mask < ROLE_COMBINATIONS; mask++) {
+                if ((mask & roleBit(role)) != 0) {
+                    masks.add(mask);
+                }
+            }
+            ROLE_MASKS_WITH_ROLE.put(role, List.copyOf(masks));
+        }
+    }
+
+    private AuthorityMasks() {
+    }
+
+    /**
+     * Bit de uma role na máscara de roles
+     */
+    public static int roleBit(UserRole role) {
+        return 1 << role.ordinal();
+    }
+
+    /**
+     * Converte um conjunto de roles em uma máscara
+     */
+    public static int roleMask(Collection<UserRole> roles) {
+        // Percorre as constantes em vez do conjunto: contains() não aloca um iterator
+        int mask = 0;
+        for (UserRole role : ROLES) {
+            if (roles.contains(role)) {
+                mask |= roleBit(role);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Converte nomes de roles (ex: claims do token) em uma máscara.
+     *
+     * @return A máscara, ou -1 se algum nome não corresponder a uma {@link UserRole}
+     */
+    public static int roleMaskFromNames(List<String> roleNames) {
+        int mask = 0;
+        for (int i = 0; i < roleNames.size(); i++) {
+            UserRole role = ROLES_BY_NAME.get(roleNames.get(i));
+            if (role == null) {
+                return -1;
+            }
+            mask |= roleBit(role);
+        }
+        return mask;
+    }
+
+    /**
+     * Retorna os nomes das roles de uma máscara (lista imutável e compartilhada)
+     */
+    public static List<String> roleNames(int roleMask) {
+        if (roleMask < 0 || roleMask >= ROLE_COMBINATIONS) {
+            throw new IllegalArgumentException("Máscara de roles inválida: " + roleMask);
+        }
+        return ROLE_NAMES_BY_MASK[roleMask];
+    }
+
+    /**
+     * Retorna todas as máscaras que contêm a role (ex: filtro {@code users.role_mask IN (...)},
+     * que usa o índice da coluna, ao contrário de um AND de bits)
+     */
+    public static List<Integer> roleMasksWith(UserRole role) {
+        return ROLE_MASKS_WITH_ROLE.get(role);
+    }
+}
@@ -0,0 +1,253 @@
+package com.distrischool.template.security;
+
+import com.distrischool.template.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice em memória userId → época de autorização (coluna users.authz_epoch).
+ *
+ * Tokens enriquecidos carregam a época do usuário no momento da emissão (claim aep); um token
+ * com época menor que a atual está desatualizado (roles alteradas ou usuário desativado depois
+ * da emissão) e é rejeitado pelo filtro JWT com uma única consulta neste índice, sem recarregar
+ * o usuário.
+ *
+ * Apenas usuários com época maior que 0 são mantidos, em uma tabela de primitivos (long[]/int[],
+ * endereçamento aberto) imutável, carregada do banco no startup e a cada refresh-interval e
+ * trocada de forma atômica. As mudanças entre duas cargas ficam em um mapa de atualizações
+ * recentes consultado junto com a tabela (vale a maior época) e incorporado a ela na próxima
+ * carga, então uma mudança de roles não copia a tabela inteira. As atualizações vêm do
+ * UserService a cada mudança (após o commit) e dos outros pods via eventos
+ * distrischool.auth.user.updated/deactivated (AuthzEpochIndexListener), que carregam a nova época.
+ *
+ * Até a primeira carga completa nenhum token é considerado desatualizado.
+ */
+@Component
+@Slf4j
+public class AuthzEpochIndex {
+
+    /**
+     * Claim dos tokens enriquecidos com a época de autorização do usuário
+     */
+    public static final String CLAIM = "aep";
+
+    private final UserRepository userRepository;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService refreshExecutor;
+
+    private volatile EpochTable epochs = EpochTable.EMPTY;
+
+    /**
+     * Épocas atualizadas depois da última carga completa; uma entrada é removida quando a carga
+     * seguinte já a inclui
+     */
+    private final Map<Long, Integer> recentUpdates = new ConcurrentHashMap<>();
+
+    public AuthzEpochIndex(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.authz-epoch-index.refresh-interval:PT5M}") Duration refreshInterval
+    ) {
+        this.userRepository = userRepository;
+        this.refreshInterval = refreshInterval;
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "authz-epoch-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("auth.authz_epoch_index.size", this, index -> index.epochs.size())
+            .description("Usuários com época de autorização incrementada no índice em memória")
+            .register(meterRegistry);
+        Gauge.builder("auth.authz_epoch_index.pending_updates", recentUpdates, Map::size)
+            .description("Épocas atualizadas desde a última carga completa do índice")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Carga inicial após o startup e agenda as recargas periódicas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshExecutor.execute(this::rebuild);
+        long intervalMillis = refreshInterval.toMillis();
+        refreshExecutor.scheduleWithFixedDelay(this::rebuild, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Época atual do usuário (0 se nunca foi incrementada)
+     */
+    public int getEpoch(long userId) {
+        int epoch = epochs.get(userId);
+        if (recentUpdates.isEmpty()) {
+            return epoch;
+        }
+        Integer recent = recentUpdates.get(userId);
+        return recent != null ? Math.max(epoch, recent) : epoch;
+    }
+
+    /**
+     * Verifica se um token emitido com a época informada está desatualizado
+     */
+    public boolean isStale(long userId, int tokenEpoch) {
+        return tokenEpoch < getEpoch(userId);
+    }
+
+    /**
+     * Registra a nova época de um usuário (ignorada se não for maior que a atual)
+     */
+    public void update(Long userId, Integer epoch) {
+        if (userId == null || epoch == null || userId <= 0) {
+            return;
+        }
+        if (epoch > epochs.get(userId)) {
+            recentUpdates.merge(userId, epoch, Math::max);
+        }
+    }
+
+    /**
+     * Registra a nova época após o commit da transação atual (ou imediatamente, fora de uma
+     * transação), para que um rollback não deixe no índice uma época que o banco não tem
+     */
+    public void updateAfterCommit(Long userId, Integer epoch) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(userId, epoch);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update(userId, epoch);
+            }
+        });
+    }
+
+    /**
+     * Recarga completa do índice; em caso de erro o índice atual é mantido
+     */
+    void rebuild() {
+        try {
+            long start = System.nanoTime();
+            List<UserRepository.UserAuthzEpochView> rows = userRepository.findIncrementedAuthzEpochs();
+            long[] userIds = new long[rows.size()];
+            int[] values = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                userIds[i] = rows.get(i).getUserId();
+                values[i] = rows.get(i).getAuthzEpoch();
+            }
+            EpochTable rebuilt = EpochTable.of(userIds, values);
+            epochs = rebuilt;
+            // Atualizações já incluídas na carga saem do mapa; as recebidas depois da leitura
+            // (época maior que a carregada) continuam valendo até a próxima carga
+            recentUpdates.forEach((userId, epoch) -> {
+                if (rebuilt.get(userId) >= epoch) {
+                    recentUpdates.remove(userId, epoch);
+                }
+            });
+            log.info("Índice de épocas de autorização carregado: {} usuários em {} ms",
+                rows.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.error("Erro ao carregar o índice de épocas de autorização; mantendo o índice atual: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tabela imutável userId → época com endereçamento aberto (sondagem linear).
+     * userId 0 marca posições vazias (IDs de usuário começam em 1).
+     */
+    static final class EpochTable {
+
+        static final EpochTable EMPTY = new EpochTable(new long[2], new int[2], 0);
+
+        private final long[] keys;
+        private final int[] values;
+        private final int size;
+        private final int mask;
+
+        private EpochTable(long[] keys, int[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+            this.mask = keys.length - 1;
+        }
+
+        static EpochTable of(long[] userIds, int[] epochs) {
+            int capacity = capacityFor(userIds.length);
+            long[] keys = new long[capacity];
+            int[] values = new int[capacity];
+            int size = 0;
+            for (int i = 0; i < userIds.length; i++) {
+                if (insert(keys, values, userIds[i], epochs[i])) {
+                    size++;
+                }
+            }
+            return new EpochTable(keys, values, size);
+        }
+
+        int get(long userId) {
+            int i = slot(userId, mask);
+            while (true) {
+                long key = keys[i];
+                if (key == userId) {
+                    return values[i];
+                }
+                if (key == 0) {
+                    return 0;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Insere ou substitui; retorna true se a chave é nova
+         */
+        private static boolean insert(long[] keys, int[] values, long userId, int epoch) {
+            int mask = keys.length - 1;
+            int i = slot(userId, mask);
+            while (keys[i] != 0 && keys[i] != userId) {
+                i = (i + 1) & mask;
+            }
+            boolean added = keys[i] == 0;
+            keys[i] = userId;
+            values[i] = epoch;
+            return added;
+        }
+
+        /**
+         * Potência de 2 com fator de carga de no máximo 50%
+         */
+        static int capacityFor(int entries) {
+            return Math.max(2, Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1);
+        }
+
+        static int slot(long userId, int mask) {
+            long hash = userId * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
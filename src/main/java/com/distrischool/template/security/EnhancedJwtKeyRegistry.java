@@ -0,0 +1,323 @@
+package com.distrischool.template.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.distrischool.template.config.Auth0Config;
+import lombok.Data;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Registro das chaves usadas para assinar e verificar tokens enriquecidos.
+ *
+ * Os objetos {@link Algorithm} e {@link JWTVerifier} são construídos uma única vez por chave
+ * (ambos são thread-safe) e reutilizados em todas as requisições. Cada chave é identificada
+ * por um kid, enviado no header dos tokens, o que permite manter várias chaves ativas durante
+ * uma rotação: tokens antigos continuam válidos enquanto a chave anterior estiver configurada.
+ *
+ * Configuração:
+ * - app.jwt.secret: chave legada, registrada com o kid app.jwt.default-kid
+ * - app.jwt.keys.&lt;kid&gt;: chaves HMAC (HS256) adicionais
+ * - app.jwt.ec-keys.&lt;kid&gt;.public-key / private-key: chaves ES256 (P-256, PEM X.509 / PKCS#8);
+ *   chaves sem private-key servem apenas para verificação (chaves aposentadas)
+ * - app.jwt.active-kid: chave usada para assinar novos tokens
+ *
+ * As chaves públicas ES256 são publicadas em /.well-known/jwks.json ({@link #getPublicJwks()}),
+ * permitindo que outros serviços verifiquem tokens enriquecidos sem o secret compartilhado.
+ * Como o verifier de cada kid é construído com o algoritmo da própria chave, o alg do header
+ * precisa corresponder à chave (um token HS256 nunca é aceito com um kid ES256).
+ *
+ * As chaves são recarregadas sem restart quando o Environment é atualizado
+ * (EnvironmentChangeEvent do Spring Cloud) ou via {@link #reload()}. Tokens em cache verificados
+ * com uma chave removida ou substituída são descartados do {@link TokenValidationCache}.
+ */
+@Component
+@Slf4j
+public class EnhancedJwtKeyRegistry {
+
+    private static final String PROPERTY_PREFIX = "app.jwt.";
+    private static final String DEFAULT_SECRET = "default-secret-key-change-in-production-minimum-256-bits";
+    private static final int EC_FIELD_SIZE = 256;
+    private static final int EC_COORDINATE_BYTES = 32;
+
+    private final Environment environment;
+    private final TokenValidationCache tokenValidationCache;
+    private final String expectedIssuer;
+    private final String expectedAudience;
+
+    private final KeyPair devEcKeyPair;
+
+    private volatile KeySet keySet;
+
+    public EnhancedJwtKeyRegistry(Environment environment, Auth0Config auth0Config, TokenValidationCache tokenValidationCache) {
+        this.environment = environment;
+        this.tokenValidationCache = tokenValidationCache;
+        this.expectedIssuer = String.format("https://%s/", auth0Config.getDomain());
+        this.expectedAudience = auth0Config.getAudience();
+        this.devEcKeyPair = environment.getProperty(PROPERTY_PREFIX + "ec-dev-key.enabled", Boolean.class, false)
+            ? generateDevKeyPair()
+            : null;
+        this.keySet = loadKeySet();
+    }
+
+    /**
+     * Chave usada para assinar novos tokens
+     */
+    public SigningKey getActiveKey() {
+        return keySet.activeKey();
+    }
+
+    /**
+     * Busca a chave pelo kid do header. Tokens sem kid (emitidos antes da rotação
+     * de chaves) são verificados com a chave legada.
+     *
+     * @param kid O kid do header do token (pode ser null)
+     * @return A chave correspondente, ou vazio se o kid for desconhecido
+     */
+    public Optional<SigningKey> findKey(String kid) {
+        KeySet current = keySet;
+        return Optional.ofNullable(current.getKeys().get(kid != null ? kid : current.getDefaultKid()));
+    }
+
+    /**
+     * Chaves públicas ES256 no formato JWK, publicadas em /.well-known/jwks.json
+     */
+    public List<Map<String, Object>> getPublicJwks() {
+        return keySet.getPublicJwks();
+    }
+
+    /**
+     * Recarrega as chaves a partir do Environment
+     */
+    public void reload() {
+        try {
+            KeySet previous = keySet;
+            KeySet loaded = loadKeySet();
+            this.keySet = loaded;
+
+            Set<String> removed = TokenValidationCache.removedKeys(previous.getFingerprints(), loaded.getFingerprints());
+            if (!previous.getDefaultKid().equals(loaded.getDefaultKid())) {
+                // Tokens sem kid passam a ser verificados com outra chave
+                removed.add(previous.getDefaultKid());
+            }
+            tokenValidationCache.invalidateKeys(ValidatedToken.TokenType.ENHANCED, removed);
+        } catch (Exception e) {
+            // Mantém as chaves atuais se a nova configuração for inválida
+            log.error("Falha ao recarregar chaves JWT, mantendo configuração anterior: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PROPERTY_PREFIX))) {
+            log.info("Configuração de chaves JWT alterada, recarregando registro de chaves");
+            reload();
+        }
+    }
+
+    private KeySet loadKeySet() {
+        Binder binder = Binder.get(environment);
+        String defaultKid = environment.getProperty(PROPERTY_PREFIX + "default-kid", "default");
+        String activeKid = environment.getProperty(PROPERTY_PREFIX + "active-kid", defaultKid);
+
+        Map<String, String> secrets = new LinkedHashMap<>();
+        secrets.put(defaultKid, environment.getProperty(PROPERTY_PREFIX + "secret", DEFAULT_SECRET));
+        secrets.putAll(binder.bind(PROPERTY_PREFIX + "keys", Bindable.mapOf(String.class, String.class))
+            .orElse(Map.of()));
+
+        Map<String, EcKeyProperties> ecKeys = new LinkedHashMap<>(binder
+            .bind(PROPERTY_PREFIX + "ec-keys", Bindable.mapOf(String.class, EcKeyProperties.class))
+            .orElse(Map.of()));
+
+        Map<String, SigningKey> keys = new LinkedHashMap<>();
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        List<Map<String, Object>> publicJwks = new ArrayList<>();
+        secrets.forEach((kid, secret) -> {
+            keys.put(kid, buildKey(kid, Algorithm.HMAC256(secret), true));
+            fingerprints.put(kid, TokenHashes.sha256(secret));
+        });
+        ecKeys.forEach((kid, properties) -> {
+            ECPublicKey publicKey = parsePublicKey(kid, properties.getPublicKey());
+            ECPrivateKey privateKey = properties.getPrivateKey() != null
+                ? parsePrivateKey(kid, properties.getPrivateKey())
+                : null;
+            keys.put(kid, buildKey(kid, Algorithm.ECDSA256(publicKey, privateKey), privateKey != null));
+            fingerprints.put(kid, fingerprint(publicKey));
+            publicJwks.add(toJwk(kid, publicKey));
+        });
+        if (devEcKeyPair != null) {
+            // Chave efêmera apenas para desenvolvimento: muda a cada restart e não é compartilhada entre pods
+            String kid = environment.getProperty(PROPERTY_PREFIX + "ec-dev-key.kid", "dev-ec");
+            ECPublicKey publicKey = (ECPublicKey) devEcKeyPair.getPublic();
+            keys.put(kid, buildKey(kid, Algorithm.ECDSA256(publicKey, (ECPrivateKey) devEcKeyPair.getPrivate()), true));
+            fingerprints.put(kid, fingerprint(publicKey));
+            publicJwks.add(toJwk(kid, publicKey));
+        }
+
+        SigningKey activeKey = keys.get(activeKid);
+        if (activeKey == null) {
+            throw new IllegalStateException("app.jwt.active-kid não corresponde a nenhuma chave configurada: " + activeKid);
+        }
+        if (!activeKey.isCanSign()) {
+            throw new IllegalStateException("app.jwt.active-kid não possui chave privada: " + activeKid);
+        }
+
+        log.info("Registro de chaves JWT carregado: kids={}, active={} ({})",
+            keys.keySet(), activeKid, activeKey.getAlgorithm().getName());
+        return new KeySet(Map.copyOf(keys), Map.copyOf(fingerprints), activeKid, defaultKid, List.copyOf(publicJwks));
+    }
+
+    private SigningKey buildKey(String kid, Algorithm algorithm, boolean canSign) {
+        JWTVerifier verifier = JWT.require(algorithm)
+            .withIssuer(expectedIssuer)
+            .withAudience(expectedAudience)
+            .build();
+        return new SigningKey(kid, algorithm, verifier, canSign);
+    }
+
+    /**
+     * Identifica o material da chave, para detectar uma chave substituída sob o mesmo kid
+     */
+    private static String fingerprint(ECPublicKey publicKey) {
+        return TokenHashes.sha256(Base64.getEncoder().encodeToString(publicKey.getEncoded()));
+    }
+
+    private static ECPublicKey parsePublicKey(String kid, String pem) {
+        if (pem == null) {
+            throw new IllegalStateException("app.jwt.ec-keys." + kid + ".public-key não configurada");
+        }
+        try {
+            ECPublicKey publicKey = (ECPublicKey) KeyFactory.getInstance("EC")
+                .generatePublic(new X509EncodedKeySpec(decodePem(pem)));
+            if (publicKey.getParams().getCurve().getField().getFieldSize() != EC_FIELD_SIZE) {
+                throw new IllegalStateException("Apenas chaves P-256 são suportadas (kid=" + kid + ")");
+            }
+            return publicKey;
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Chave pública EC inválida para o kid " + kid, e);
+        }
+    }
+
+    private static ECPrivateKey parsePrivateKey(String kid, String pem) {
+        try {
+            return (ECPrivateKey) KeyFactory.getInstance("EC")
+                .generatePrivate(new PKCS8EncodedKeySpec(decodePem(pem)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Chave privada EC inválida para o kid " + kid, e);
+        }
+    }
+
+    /**
+     * Decodifica uma chave PEM; aceita quebras de linha reais ou escapadas (\n em variáveis de ambiente)
+     */
+    private static byte[] decodePem(String pem) {
+        String base64 = pem
+            .replace("\\n", "\n")
+            .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+            .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private static KeyPair generateDevKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            log.warn("Usando chave ES256 efêmera para tokens enriquecidos (app.jwt.ec-dev-key.enabled). "
+                + "Não use em produção: a chave muda a cada restart e não é compartilhada entre instâncias");
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException("Não foi possível gerar chave EC de desenvolvimento", e);
+        }
+    }
+
+    /**
+     * Representação JWK (RFC 7517/7518) de uma chave pública P-256
+     */
+    private static Map<String, Object> toJwk(String kid, ECPublicKey publicKey) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", "ES256");
+        jwk.put("x", encoder.encodeToString(toUnsigned(publicKey.getW().getAffineX())));
+        jwk.put("y", encoder.encodeToString(toUnsigned(publicKey.getW().getAffineY())));
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    /**
+     * Coordenada com tamanho fixo de 32 bytes (sem o byte de sinal do BigInteger)
+     */
+    private static byte[] toUnsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] result = new byte[EC_COORDINATE_BYTES];
+        int length = Math.min(bytes.length, EC_COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, result, EC_COORDINATE_BYTES - length, length);
+        return result;
+    }
+
+    /**
+     * Chave pré-construída: algoritmo para assinatura e verifier para validação
+     */
+    @Value
+    public static class SigningKey {
+        String kid;
+        Algorithm algorithm;
+        JWTVerifier verifier;
+        boolean canSign;
+    }
+
+    /**
+     * Configuração de uma chave ES256 (app.jwt.ec-keys.&lt;kid&gt;)
+     */
+    @Data
+    public static class EcKeyProperties {
+        private String publicKey;
+        private String privateKey;
+    }
+
+    /**
+     * Snapshot imutável das chaves, substituído atomicamente a cada reload
+     */
+    @Value
+    private static class KeySet {
+        Map<String, SigningKey> keys;
+        /** kid -> fingerprint do material da chave */
+        Map<String, String> fingerprints;
+        String activeKid;
+        String defaultKid;
+        List<Map<String, Object>> publicJwks;
+
+        SigningKey activeKey() {
+            return keys.get(activeKid);
+        }
+    }
+}
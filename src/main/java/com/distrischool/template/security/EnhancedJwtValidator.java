@@ -2,12 +2,10 @@
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.distrischool.template.config.Auth0Config;
+import com.distrischool.template.service.PermissionService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -15,39 +13,40 @@
 /**
  * Validador para tokens JWT enriquecidos gerados pelo EnhancedJwtService.
  * 
- * Este validador verifica tokens assinados com nossa própria secret key
- * que contêm claims do Auth0 + roles/permissions do banco de dados.
+ * Este validador verifica tokens assinados com nossas próprias chaves (selecionadas pelo kid
+ * no {@link EnhancedJwtKeyRegistry}) que contêm claims do Auth0 + roles/permissions do banco de dados.
  */
 @Component
 @Slf4j
 public class EnhancedJwtValidator {
 
-    private final String jwtSecret;
-    private final String expectedIssuer;
-    private final String expectedAudience;
+    private final EnhancedJwtKeyRegistry keyRegistry;
+    private final PermissionService permissionService;
 
-    public EnhancedJwtValidator(
-            Auth0Config auth0Config,
-            @Value("${app.jwt.secret:default-secret-key-change-in-production-minimum-256-bits}") String jwtSecret
-    ) {
-        this.jwtSecret = jwtSecret;
-        this.expectedIssuer = String.format("https://%s/", auth0Config.getDomain());
-        this.expectedAudience = auth0Config.getAudience();
+    public EnhancedJwtValidator(EnhancedJwtKeyRegistry keyRegistry, PermissionService permissionService) {
+        this.keyRegistry = keyRegistry;
+        this.permissionService = permissionService;
     }
 
     /**
      * Valida um token JWT enriquecido
      */
     public DecodedJWT validateToken(String token) throws JWTVerificationException {
+        return validateToken(JWT.decode(token));
+    }
+
+    /**
+     * Valida um token JWT enriquecido já decodificado (evita decodificar o token novamente)
+     */
+    public DecodedJWT validateToken(DecodedJWT jwt) throws JWTVerificationException {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(jwtSecret);
-            
-            JWTVerifier verifier = JWT.require(algorithm)
-                .withIssuer(expectedIssuer)
-                .withAudience(expectedAudience)
-                .build();
+            // Verifier pré-construído para o kid do header (sem alocação por requisição)
+            JWTVerifier verifier = keyRegistry.findKey(jwt.getKeyId())
+                .map(EnhancedJwtKeyRegistry.SigningKey::getVerifier)
+                .orElseThrow(() -> new JWTVerificationException(
+                    "Chave de assinatura desconhecida (kid=" + jwt.getKeyId() + ")"));
             
-            DecodedJWT decodedJWT = verifier.verify(token);
+            DecodedJWT decodedJWT = verifier.verify(jwt);
             
             log.debug("Token enriquecido validado com sucesso: sub={}", decodedJWT.getSubject());
             return decodedJWT;
@@ -76,19 +75,58 @@ public String getEmail(DecodedJWT jwt) {
     }
 
     /**
-     * Extrai roles do token
+     * Versão do formato dos claims de roles/permissions (1 quando o token não possui o claim ver)
+     */
+    public int getFormatVersion(DecodedJWT jwt) {
+        Integer version = jwt.getClaim(AuthorityMasks.VERSION_CLAIM).asInt();
+        return version != null ? version : AuthorityMasks.LEGACY_FORMAT_VERSION;
+    }
+
+    /**
+     * Extrai a máscara de roles do token (-1 em tokens no formato antigo)
+     */
+    public int getRoleMask(DecodedJWT jwt) {
+        Integer roleMask = jwt.getClaim(AuthorityMasks.ROLE_MASK_CLAIM).asInt();
+        return roleMask != null && getFormatVersion(jwt) >= AuthorityMasks.FORMAT_VERSION ? roleMask : -1;
+    }
+
+    /**
+     * Extrai a máscara de permissions do token (-1 em tokens no formato antigo)
+     */
+    public long getPermissionMask(DecodedJWT jwt) {
+        Long permissionMask = jwt.getClaim(AuthorityMasks.PERMISSION_MASK_CLAIM).asLong();
+        return permissionMask != null && getFormatVersion(jwt) >= AuthorityMasks.FORMAT_VERSION ? permissionMask : -1L;
+    }
+
+    /**
+     * Extrai a época de autorização do token (-1 em tokens emitidos antes do claim existir)
+     */
+    public int getAuthzEpoch(DecodedJWT jwt) {
+        Integer authzEpoch = jwt.getClaim(AuthzEpochIndex.CLAIM).asInt();
+        return authzEpoch != null ? authzEpoch : -1;
+    }
+
+    /**
+     * Extrai roles do token (decodificadas da máscara no formato compacto)
      */
     public List<String> getRoles(DecodedJWT jwt) {
+        int roleMask = getRoleMask(jwt);
+        if (roleMask >= 0) {
+            return AuthorityMasks.roleNames(roleMask);
+        }
         List<String> roles = jwt.getClaim("roles").asList(String.class);
         return roles != null ? roles : List.of();
     }
 
     /**
-     * Extrai permissions do token
+     * Extrai permissions do token (decodificadas da máscara no formato compacto)
      */
     public List<String> getPermissions(DecodedJWT jwt) {
+        long permissionMask = getPermissionMask(jwt);
+        if (permissionMask >= 0) {
+            return permissionService.getPermissionNames(permissionMask);
+        }
         List<String> permissions = jwt.getClaim("permissions").asList(String.class);
         return permissions != null ? permissions : List.of();
     }
 }
-
@@ -0,0 +1,41 @@
+package com.distrischool.template.security;
+
+import com.auth0.jwk.Jwk;
+
+import java.util.List;
+
+/**
+ * Origem das chaves públicas (JWKS) usadas pelo {@link Auth0JwtValidator}.
+ *
+ * Implementações:
+ * - {@link UrlJwksSource}: endpoint HTTP(S), o Auth0 ou um stand-in local
+ * - {@link ResourceJwksSource}: arquivo local ou recurso do classpath, sem rede
+ */
+public interface JwksSource {
+
+    /**
+     * Carrega todas as chaves do JWKS
+     */
+    List<Jwk> load() throws Exception;
+
+    /**
+     * Versão atual da origem (ex.: lastModified do arquivo), usada para recarregar as chaves
+     * assim que a origem muda. Retorna -1 quando a origem não suporta detecção de mudanças.
+     */
+    default long version() {
+        return -1L;
+    }
+
+    /**
+     * Indica se a carga é local e barata o suficiente para ser feita de forma síncrona na
+     * inicialização, garantindo um conjunto de chaves já aquecido no startup
+     */
+    default boolean isLocal() {
+        return false;
+    }
+
+    /**
+     * Descrição da origem para logs
+     */
+    String describe();
+}
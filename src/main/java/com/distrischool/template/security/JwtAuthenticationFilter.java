@@ -1,7 +1,7 @@
 package com.distrischool.template.security;
 
-import com.auth0.jwt.interfaces.DecodedJWT;
-import com.distrischool.template.repository.UserRepository;
+import com.distrischool.template.service.JwtService;
+import com.distrischool.template.service.PermissionService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,6 +11,7 @@
 import org.springframework.context.annotation.Lazy;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,12 +20,14 @@
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Filtro de autenticação JWT.
  * 
- * Suporta apenas Auth0 JWT tokens.
+ * Suporta tokens Auth0 (RS256) e tokens enriquecidos (HS256); o tipo é identificado pelo
+ * header do token e cada token é validado uma única vez pelo validador correspondente.
  * Auth0 gerencia completamente: passwords, email verification, password reset, MFA, login attempts.
  */
 @Component
@@ -33,15 +36,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
     @Lazy
-    private Auth0JwtValidator auth0Validator;
+    private JwtService jwtService;
     
     @Autowired
     @Lazy
-    private EnhancedJwtValidator enhancedJwtValidator;
-    
+    private PrincipalCache principalCache;
+
     @Autowired
     @Lazy
-    private UserRepository userRepository;
+    private PermissionService permissionService;
+
+    @Autowired
+    @Lazy
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    @Lazy
+    private AuthzEpochIndex authzEpochIndex;
 
     @Override
     protected void doFilterInternal(
@@ -68,9 +79,16 @@ protected void doFilterInternal(
                 return;
             }
 
-            // Tenta validar como token enriquecido primeiro, depois Auth0 (backwards compatibility)
-            if (!authenticateWithEnhancedToken(request, jwt)) {
-                authenticateWithAuth0(request, jwt);
+            // Valida o token uma única vez; o tipo (Auth0 ou enriquecido) é definido pelo header
+            Optional<ValidatedToken> validated = jwtService.validateAny(jwt);
+            if (validated.isEmpty()) {
+                log.debug("Token JWT inválido ou de tipo não suportado");
+            } else if (tokenDenylist.isRevoked(validated.get())) {
+                log.debug("Token JWT revogado: subject={}", validated.get().getSubject());
+            } else if (validated.get().getTokenType() == ValidatedToken.TokenType.ENHANCED) {
+                authenticateWithEnhancedToken(request, validated.get());
+            } else {
+                authenticateWithAuth0(request, validated.get());
             }
 
         } catch (Exception e) {
@@ -83,101 +101,93 @@ protected void doFilterInternal(
 
     /**
      * Autentica usando token enriquecido (com roles/permissions do DB)
-     * @return true se autenticou com sucesso, false caso contrário
      */
-    private boolean authenticateWithEnhancedToken(HttpServletRequest request, String token) {
-        try {
-            // Valida o token enriquecido
-            DecodedJWT jwt = enhancedJwtValidator.validateToken(token);
-            
-            // Extrai informações do token
-            String auth0Id = enhancedJwtValidator.getAuth0Id(jwt);
-            String email = enhancedJwtValidator.getEmail(jwt);
-            List<String> roles = enhancedJwtValidator.getRoles(jwt);
-            List<String> permissions = enhancedJwtValidator.getPermissions(jwt);
-            
-            // Busca o usuário no banco (opcional, para pegar userId)
-            var user = userRepository.findByAuth0Id(auth0Id).orElse(null);
-            Long userId = user != null ? user.getId() : null;
-            
-            // Converte roles para authorities do Spring Security
-            List<SimpleGrantedAuthority> authorities = roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toList());
-            
-            // Adiciona permissions como authorities também
-            permissions.forEach(permission -> 
-                authorities.add(new SimpleGrantedAuthority(permission))
-            );
-
-            // Cria o objeto de autenticação
-            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                new UserPrincipal(userId, email, auth0Id),
-                null,
-                authorities
-            );
-            
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authToken);
-            
-            log.debug("Usuário autenticado via token enriquecido: {} (auth0_id: {}) com roles: {} e permissions: {}", 
-                email, auth0Id, roles, permissions);
-            
-            return true;
-            
-        } catch (Exception e) {
-            // Token não é um token enriquecido válido, retorna false para tentar Auth0
-            log.debug("Token não é um token enriquecido válido, tentando Auth0: {}", e.getMessage());
-            return false;
+    private void authenticateWithEnhancedToken(HttpServletRequest request, ValidatedToken jwt) {
+        String auth0Id = jwt.getSubject();
+        List<String> roles = jwt.getRoles();
+        List<String> permissions = jwt.getPermissions();
+        
+        // Tokens emitidos pela troca de tokens já trazem o userId (claim uid); tokens
+        // antigos sem o claim buscam o usuário no cache (banco apenas em caso de miss)
+        Long userId = jwt.getUserId() != null
+            ? jwt.getUserId()
+            : principalCache.get(auth0Id).map(PrincipalCache.CachedPrincipal::getUserId).orElse(null);
+        
+        // Roles alteradas ou usuário desativado depois da emissão: o token não é mais aceito
+        if (userId != null && jwt.getAuthzEpoch() >= 0 && authzEpochIndex.isStale(userId, jwt.getAuthzEpoch())) {
+            log.debug("Token enriquecido desatualizado (época {}) para o usuário {}", jwt.getAuthzEpoch(), userId);
+            return;
         }
+        
+        // Authorities montadas direto das máscaras (formato compacto) ou das listas (formato antigo);
+        // quando as permissions são as da combinação de roles, a lista pré-calculada é reutilizada
+        int roleMask = jwt.getRoleMask() >= 0 ? jwt.getRoleMask() : AuthorityMasks.roleMaskFromNames(roles);
+        long permissionMask = jwt.getPermissionMask() >= 0
+            ? jwt.getPermissionMask()
+            : permissionService.getPermissionMask(permissions);
+        List<? extends GrantedAuthority> authorities = roleMask >= 0 && permissionMask >= 0
+            ? permissionService.getAuthorities(roleMask, permissionMask)
+            : toAuthorities(roles, permissions);
+
+        setAuthentication(request, new UserPrincipal(userId, jwt.getEmail(), auth0Id), authorities);
+        
+        log.debug("Usuário autenticado via token enriquecido: {} (auth0_id: {}) com roles: {} e permissions: {}", 
+            jwt.getEmail(), auth0Id, roles, permissions);
     }
 
     /**
      * Autentica usando token Auth0 (backwards compatibility)
      */
-    private void authenticateWithAuth0(HttpServletRequest request, String token) {
-        try {
-            // Valida o token Auth0 usando JWK
-            DecodedJWT jwt = auth0Validator.validateToken(token);
-            
-            // Extrai informações do token
-            String auth0Id = auth0Validator.getAuth0Id(jwt);
-            String email = auth0Validator.getEmail(jwt);
-            List<String> roles = auth0Validator.getRoles(jwt);
-            
-            // Busca o usuário no banco (precisa estar sincronizado)
-            var user = userRepository.findByAuth0Id(auth0Id).orElse(null);
-            
-            Long userId = user != null ? user.getId() : null;
-            
-            // Se não encontrou usuário, usa roles do token
-            // Se encontrou, usa roles do banco (mais atualizado)
-            List<String> effectiveRoles = user != null && !user.getRoles().isEmpty()
-                ? user.getRoles().stream().map(r -> r.getName().name()).collect(Collectors.toList())
-                : roles;
-            
-            // Converte roles para authorities do Spring Security
-            List<SimpleGrantedAuthority> authorities = effectiveRoles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toList());
-
-            // Cria o objeto de autenticação
-            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                new UserPrincipal(userId, email, auth0Id),
-                null,
-                authorities
-            );
-            
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authToken);
-            
-            log.debug("Usuário autenticado via Auth0: {} (auth0_id: {}) com roles: {}", 
-                email, auth0Id, effectiveRoles);
-            
-        } catch (Exception e) {
-            log.warn("Falha ao validar token Auth0: {}", e.getMessage());
-            throw e;
-        }
+    private void authenticateWithAuth0(HttpServletRequest request, ValidatedToken jwt) {
+        String auth0Id = jwt.getSubject();
+        
+        // Busca o usuário (precisa estar sincronizado); cache em memória, banco apenas em caso de miss
+        var user = principalCache.get(auth0Id).orElse(null);
+        
+        Long userId = user != null ? user.getUserId() : null;
+        
+        // Se não encontrou usuário, usa roles do token
+        // Se encontrou, usa roles do banco (mais atualizado)
+        List<String> effectiveRoles = user != null && !user.getRoles().isEmpty()
+            ? user.getRoles()
+            : jwt.getRoles();
+        
+        // Converte roles para authorities do Spring Security (pré-calculadas quando as roles são conhecidas)
+        int roleMask = AuthorityMasks.roleMaskFromNames(effectiveRoles);
+        List<? extends GrantedAuthority> authorities = roleMask >= 0
+            ? permissionService.getRoleAuthorities(roleMask)
+            : toAuthorities(effectiveRoles, List.of());
+
+        setAuthentication(request, new UserPrincipal(userId, jwt.getEmail(), auth0Id), authorities);
+        
+        log.debug("Usuário autenticado via Auth0: {} (auth0_id: {}) com roles: {}", 
+            jwt.getEmail(), auth0Id, effectiveRoles);
+    }
+
+    /**
+     * Converte roles e permissions em authorities (roles fora de {@code UserRole})
+     */
+    private List<SimpleGrantedAuthority> toAuthorities(List<String> roles, List<String> permissions) {
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+            .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            .collect(Collectors.toList());
+        permissions.forEach(permission -> authorities.add(new SimpleGrantedAuthority(permission)));
+        return authorities;
+    }
+
+    /**
+     * Registra a autenticação no SecurityContext
+     */
+    private void setAuthentication(HttpServletRequest request, UserPrincipal principal,
+                                   List<? extends GrantedAuthority> authorities) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+            principal,
+            null,
+            authorities
+        );
+        
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
     }
 
 }
@@ -0,0 +1,286 @@
+package com.distrischool.template.security;
+
+import com.distrischool.template.entity.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.*;
+
+/**
+ * Modelo de permissions compilado e imutável.
+ *
+ * Cada role tem uma máscara de bits de permissions ({@link EnumMap}) e cada combinação de roles
+ * (máscara de {@link AuthorityMasks}) tem sua lista de permissions e de authorities já
+ * instanciadas. Um novo snapshot é montado a cada recarga e publicado de forma atômica pelo
+ * PermissionService; leituras nunca veem um modelo parcialmente atualizado.
+ */
+public final class PermissionSnapshot {
+
+    /**
+     * Maior bit aceito (as máscaras são {@code long} positivos)
+     */
+    public static final int MAX_BIT = 62;
+
+    private static final UserRole[] ROLES = UserRole.values();
+
+    private final String[] permissionNamesByBit;
+    private final GrantedAuthority[] permissionAuthoritiesByBit;
+    private final Map<String, Integer> bitsByName;
+    private final EnumMap<UserRole, Long> permissionMaskByRole = new EnumMap<>(UserRole.class);
+    private final long[] permissionMaskByRoleMask;
+    private final List<String>[] permissionsByRoleMask;
+    private final List<GrantedAuthority>[] roleAuthoritiesByRoleMask;
+    private final List<GrantedAuthority>[] authoritiesByRoleMask;
+
+    /**
+     * Listas pré-montadas para as máscaras de permissions das combinações de roles (as máscaras
+     * dos tokens emitidos sem alterações de permissions); limitado a ROLE_COMBINATIONS entradas,
+     * já que a máscara de um token é controlada por quem o apresenta
+     */
+    private final Map<Long, List<String>> permissionNamesByMask;
+
+    @SuppressWarnings("unchecked")
+    private PermissionSnapshot(Map<String, Integer> bitsByName, Map<UserRole, ? extends Collection<String>> permissionsByRole) {
+        this.bitsByName = Map.copyOf(bitsByName);
+
+        // Authorities compartilhadas: uma única instância por role e por permission
+        permissionNamesByBit = new String[MAX_BIT + 1];
+        permissionAuthoritiesByBit = new GrantedAuthority[MAX_BIT + 1];
+        bitsByName.forEach((name, bit) -> {
+            if (bit < 0 || bit > MAX_BIT) {
+                throw new IllegalArgumentException("Bit inválido para a permission " + name + ": " + bit);
+            }
+            if (permissionNamesByBit[bit] != null) {
+                throw new IllegalArgumentException("Bit " + bit + " usado por mais de uma permission");
+            }
+            permissionNamesByBit[bit] = name;
+            permissionAuthoritiesByBit[bit] = new SimpleGrantedAuthority(name);
+        });
+        GrantedAuthority[] roleAuthorities = new GrantedAuthority[ROLES.length];
+        for (UserRole role : ROLES) {
+            roleAuthorities[role.ordinal()] = new SimpleGrantedAuthority(role.getRoleName());
+            Collection<String> rolePermissions = permissionsByRole.get(role);
+            permissionMaskByRole.put(role, rolePermissions != null ? toMask(rolePermissions) : 0L);
+        }
+
+        int combinations = AuthorityMasks.ROLE_COMBINATIONS;
+        permissionMaskByRoleMask = new long[combinations];
+        permissionsByRoleMask = new List[combinations];
+        roleAuthoritiesByRoleMask = new List[combinations];
+        authoritiesByRoleMask = new List[combinations];
+
+        Map<Long, List<String>> namesByMask = new HashMap<>();
+        for (int roleMask = 0; roleMask < combinations; roleMask++) {
+            long permissionMask = 0L;
+            List<GrantedAuthority> roleAuthorityList = new ArrayList<>();
+            for (UserRole role : ROLES) {
+                if ((roleMask & AuthorityMasks.roleBit(role)) != 0) {
+                    permissionMask |= permissionMaskByRole.get(role);
+                    roleAuthorityList.add(roleAuthorities[role.ordinal()]);
+                }
+            }
+
+            List<GrantedAuthority> authorities = new ArrayList<>(roleAuthorityList);
+            appendPermissionAuthorities(permissionMask, authorities);
+
+            permissionMaskByRoleMask[roleMask] = permissionMask;
+            permissionsByRoleMask[roleMask] = namesByMask.computeIfAbsent(permissionMask, this::decodePermissionNames);
+            roleAuthoritiesByRoleMask[roleMask] = List.copyOf(roleAuthorityList);
+            authoritiesByRoleMask[roleMask] = List.copyOf(authorities);
+        }
+        permissionNamesByMask = Map.copyOf(namesByMask);
+    }
+
+    /**
+     * Compila um snapshot a partir do modelo carregado do banco
+     *
+     * @param bitsByName Bit de cada permission ativa
+     * @param permissionsByRole Permissions de cada role
+     */
+    public static PermissionSnapshot compile(Map<String, Integer> bitsByName,
+                                             Map<UserRole, ? extends Collection<String>> permissionsByRole) {
+        return new PermissionSnapshot(bitsByName, permissionsByRole);
+    }
+
+    /**
+     * Modelo padrão (o mesmo semeado pela migração V7), usado antes da primeira carga do banco
+     * ou quando o banco não está disponível
+     */
+    public static PermissionSnapshot defaults() {
+        Map<String, Integer> bitsByName = new HashMap<>();
+        for (int bit = 0; bit < AuthorityMasks.PERMISSIONS.size(); bit++) {
+            bitsByName.put(AuthorityMasks.PERMISSIONS.get(bit), bit);
+        }
+        Map<UserRole, List<String>> permissionsByRole = new EnumMap<>(UserRole.class);
+        for (UserRole role : ROLES) {
+            permissionsByRole.put(role, getDefaultPermissionsForRole(role));
+        }
+        return new PermissionSnapshot(bitsByName, permissionsByRole);
+    }
+
+    /**
+     * Retorna as permissions de uma combinação de roles (lista imutável e compartilhada)
+     */
+    public List<String> getPermissions(int roleMask) {
+        return permissionsByRoleMask[roleMask];
+    }
+
+    /**
+     * Retorna a máscara de bits de permissions de uma role
+     */
+    public long getPermissionMask(UserRole role) {
+        return permissionMaskByRole.get(role);
+    }
+
+    /**
+     * Retorna a máscara de bits de permissions de uma combinação de roles
+     */
+    public long getPermissionMask(int roleMask) {
+        return permissionMaskByRoleMask[roleMask];
+    }
+
+    /**
+     * Retorna as authorities (ROLE_* e permissions) de uma combinação de roles
+     */
+    public List<GrantedAuthority> getAuthorities(int roleMask) {
+        return authoritiesByRoleMask[roleMask];
+    }
+
+    /**
+     * Retorna as authorities de uma combinação de roles com uma máscara de permissions arbitrária
+     * (ex: token emitido antes de uma mudança nas permissions da role). Quando a máscara é a
+     * da própria combinação, retorna a lista pré-calculada.
+     */
+    public List<GrantedAuthority> getAuthorities(int roleMask, long permissionMask) {
+        if (permissionMask == permissionMaskByRoleMask[roleMask]) {
+            return authoritiesByRoleMask[roleMask];
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(roleAuthoritiesByRoleMask[roleMask]);
+        appendPermissionAuthorities(permissionMask, authorities);
+        return authorities;
+    }
+
+    /**
+     * Retorna apenas as authorities ROLE_* de uma combinação de roles
+     */
+    public List<GrantedAuthority> getRoleAuthorities(int roleMask) {
+        return roleAuthoritiesByRoleMask[roleMask];
+    }
+
+    /**
+     * Bit de uma permission, ou -1 se a permission não existe (ou está inativa)
+     */
+    public int permissionBit(String permission) {
+        Integer bit = bitsByName.get(permission);
+        return bit != null ? bit : -1;
+    }
+
+    /**
+     * Converte nomes de permissions em uma máscara.
+     *
+     * @return A máscara, ou -1 se alguma permission não existir
+     */
+    public long permissionMask(List<String> permissions) {
+        long mask = 0L;
+        for (int i = 0; i < permissions.size(); i++) {
+            int bit = permissionBit(permissions.get(i));
+            if (bit < 0) {
+                return -1L;
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Retorna os nomes das permissions de uma máscara (lista imutável; compartilhada quando a
+     * máscara é a de uma combinação de roles). Bits de permissions removidas são ignorados.
+     */
+    public List<String> permissionNames(long permissionMask) {
+        List<String> names = permissionNamesByMask.get(permissionMask);
+        return names != null ? names : decodePermissionNames(permissionMask);
+    }
+
+    private List<String> decodePermissionNames(long permissionMask) {
+        List<String> names = new ArrayList<>(Long.bitCount(permissionMask));
+        for (long remaining = permissionMask; remaining != 0; remaining &= remaining - 1) {
+            int bit = Long.numberOfTrailingZeros(remaining);
+            if (bit <= MAX_BIT && permissionNamesByBit[bit] != null) {
+                names.add(permissionNamesByBit[bit]);
+            }
+        }
+        return List.copyOf(names);
+    }
+
+    /**
+     * Número de permissions ativas no snapshot
+     */
+    public int size() {
+        return bitsByName.size();
+    }
+
+    private void appendPermissionAuthorities(long permissionMask, List<GrantedAuthority> authorities) {
+        for (int bit = 0; bit <= MAX_BIT; bit++) {
+            if ((permissionMask & (1L << bit)) != 0 && permissionAuthoritiesByBit[bit] != null) {
+                authorities.add(permissionAuthoritiesByBit[bit]);
+            }
+        }
+    }
+
+    private long toMask(Collection<String> permissions) {
+        long mask = 0L;
+        for (String permission : permissions) {
+            Integer bit = bitsByName.get(permission);
+            if (bit == null) {
+                throw new IllegalArgumentException("Permission não registrada: " + permission);
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Permissions padrão de cada role (as mesmas semeadas pela migração V7)
+     */
+    private static List<String> getDefaultPermissionsForRole(UserRole role) {
+        return switch (role) {
+            case ADMIN -> AuthorityMasks.PERMISSIONS;
+            case TEACHER -> List.of(
+                // Teachers (own info)
+                "read:teachers",
+                "write:teachers",
+                // Students (classes assigned)
+                "read:students",
+                // Classes/Grades (assigned)
+                "read:classes",
+                "write:classes",
+                // Grades (can grade students)
+                "read:grades",
+                "write:grades",
+                // Attendance (can mark attendance)
+                "read:attendance",
+                "write:attendance"
+            );
+            case STUDENT -> List.of(
+                // Students (own info)
+                "read:students",
+                // Classes (enrolled)
+                "read:classes",
+                // Grades (own grades)
+                "read:grades",
+                // Attendance (own attendance)
+                "read:attendance"
+            );
+            case PARENT -> List.of(
+                // Students (children)
+                "read:students",
+                // Classes (children's classes)
+                "read:classes",
+                // Grades (children's grades)
+                "read:grades",
+                // Attendance (children's attendance)
+                "read:attendance"
+            );
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package com.distrischool.template.security;
+
+import com.distrischool.template.entity.User;
+import com.distrischool.template.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cache em memória dos dados do usuário usados na autenticação (auth0Id → userId + roles).
+ *
+ * Evita uma consulta ao banco (com join em user_roles, já que roles é EAGER) a cada
+ * requisição autenticada. Apenas usuários existentes são armazenados.
+ *
+ * Invalidação:
+ * - local: {@link #evict(String)} chamado pelo UserService a cada alteração de usuário
+ * - entre pods: eventos distrischool.auth.user.updated/deactivated (PrincipalCacheInvalidationListener)
+ * - TTL configurável como limite de segurança
+ *
+ * Métricas expostas (Micrometer) com a tag cache=principal.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private static final String CACHE_NAME = "principal";
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Cache<String, CachedPrincipal> cache;
+
+    public PrincipalCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.principal-cache.enabled:true}") boolean enabled,
+            @Value("${app.auth.principal-cache.max-size:10000}") long maxSize,
+            @Value("${app.auth.principal-cache.ttl:PT10M}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        log.info("Cache de principals inicializado: enabled={}, maxSize={}, ttl={}", enabled, maxSize, ttl);
+    }
+
+    /**
+     * Busca o usuário pelo Auth0 ID, consultando o banco apenas em caso de miss
+     *
+     * @param auth0Id O Auth0 ID (sub claim)
+     * @return userId e roles do usuário, ou vazio se o usuário não existir no banco
+     */
+    public Optional<CachedPrincipal> get(String auth0Id) {
+        if (auth0Id == null) {
+            return Optional.empty();
+        }
+        if (!enabled) {
+            return load(auth0Id);
+        }
+        return Optional.ofNullable(cache.get(auth0Id, key -> load(key).orElse(null)));
+    }
+
+    /**
+     * Remove o usuário do cache. Dentro de uma transação, remove novamente após o commit
+     * para que uma leitura concorrente não recoloque no cache os dados anteriores.
+     */
+    public void evict(String auth0Id) {
+        if (auth0Id == null) {
+            return;
+        }
+        cache.invalidate(auth0Id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(auth0Id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Remove todas as entradas do cache
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private Optional<CachedPrincipal> load(String auth0Id) {
+        return userRepository.findByAuth0Id(auth0Id).map(PrincipalCache::toPrincipal);
+    }
+
+    private static CachedPrincipal toPrincipal(User user) {
+        List<String> roles = user.getRoles().stream()
+            .map(role -> role.getName().name())
+            .toList();
+        return new CachedPrincipal(user.getId(), roles);
+    }
+
+    /**
+     * Dados imutáveis do usuário necessários para a autenticação
+     */
+    @lombok.Value
+    public static class CachedPrincipal {
+        Long userId;
+        List<String> roles;
+    }
+}
@@ -0,0 +1,64 @@
+package com.distrischool.template.security;
+
+import com.auth0.jwk.Jwk;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JWKS lido de um arquivo local (file:) ou de um recurso do classpath (classpath:).
+ *
+ * Permite executar e medir o caminho de validação RS256 sem acesso ao Auth0. Arquivos
+ * locais informam o lastModified como versão, então o validador recarrega as chaves
+ * quando o arquivo é alterado.
+ */
+@Slf4j
+public class ResourceJwksSource implements JwksSource {
+
+    private static final TypeReference<Map<String, List<Map<String, Object>>>> JWKS_TYPE = new TypeReference<>() {};
+
+    private final Resource resource;
+    private final ObjectMapper objectMapper;
+
+    public ResourceJwksSource(Resource resource, ObjectMapper objectMapper) {
+        this.resource = resource;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public List<Jwk> load() throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            List<Map<String, Object>> keys = objectMapper.readValue(in, JWKS_TYPE).get("keys");
+            if (keys == null) {
+                throw new IOException("JWKS sem o campo keys: " + describe());
+            }
+            return keys.stream().map(Jwk::fromValues).toList();
+        }
+    }
+
+    @Override
+    public long version() {
+        try {
+            return resource.isFile() ? resource.lastModified() : -1L;
+        } catch (IOException e) {
+            log.debug("Não foi possível ler lastModified de {}: {}", describe(), e.getMessage());
+            return -1L;
+        }
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public String describe() {
+        return resource.getDescription();
+    }
+}
@@ -0,0 +1,309 @@
+package com.distrischool.template.security;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Denylist de tokens revogados, por subject (auth0Id) ou por jti.
+ *
+ * - Redis é o armazenamento compartilhado: auth:revoked:sub:{subject} guarda o instante da
+ *   revogação (tokens emitidos até esse instante são rejeitados) e auth:revoked:jti:{jti} marca
+ *   um token específico; as chaves expiram junto com os tokens que revogam
+ * - cada pod mantém Bloom filters locais com as mesmas chaves: a grande maioria das
+ *   verificações termina com "certamente não revogado" sem acesso ao Redis; apenas os
+ *   positivos (revogações reais e falsos positivos) consultam o Redis
+ *
+ * Os filtros são alimentados pelas revogações locais, pelos eventos
+ * distrischool.auth.user.deactivated/token.revoked (TokenDenylistListener, recebidos por todos os
+ * pods) e por uma recarga completa do Redis no startup e a cada refresh-interval, que também
+ * descarta as chaves expiradas.
+ *
+ * Se o Redis não responder a uma consulta, o token é considerado revogado. Revogações de subject
+ * feitas dentro de uma transação ({@link #revokeSubjectAfterCommit(String)}) são gravadas após o
+ * commit e, se o Redis falhar, repetidas em background (revoke-retry.*).
+ */
+@Component
+@Slf4j
+public class TokenDenylist {
+
+    static final String SUBJECT_KEY_PREFIX = "auth:revoked:sub:";
+    static final String TOKEN_KEY_PREFIX = "auth:revoked:jti:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration subjectTtl;
+    private final Duration refreshInterval;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private final int revokeMaxAttempts;
+    private final Duration revokeRetryBackoff;
+    private final ScheduledExecutorService refreshExecutor;
+
+    private final Counter bloomNegatives;
+    private final Counter storeRevoked;
+    private final Counter bloomFalsePositives;
+    private final Counter storeErrors;
+    private final Counter revokeFailures;
+
+    private volatile Filters filters;
+
+    /**
+     * Chaves recebidas durante uma recarga completa; adicionadas novamente após a troca para que
+     * a recarga (lida antes da revogação) não as perca
+     */
+    private final Set<String> addedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    public TokenDenylist(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.token-denylist.subject-ttl:PT24H}") Duration subjectTtl,
+            @Value("${app.auth.token-denylist.refresh-interval:PT10M}") Duration refreshInterval,
+            @Value("${app.auth.token-denylist.expected-insertions:100000}") int expectedInsertions,
+            @Value("${app.auth.token-denylist.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${app.auth.token-denylist.revoke-retry.max-attempts:5}") int revokeMaxAttempts,
+            @Value("${app.auth.token-denylist.revoke-retry.backoff:PT1S}") Duration revokeRetryBackoff
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.subjectTtl = subjectTtl;
+        this.refreshInterval = refreshInterval;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.revokeMaxAttempts = Math.max(1, revokeMaxAttempts);
+        this.revokeRetryBackoff = revokeRetryBackoff;
+        this.filters = newFilters();
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-denylist-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        bloomNegatives = Counter.builder("auth.token_denylist.checks")
+            .tag("result", "bloom_negative")
+            .description("Verificações de revogação de tokens")
+            .register(meterRegistry);
+        storeRevoked = Counter.builder("auth.token_denylist.checks")
+            .tag("result", "revoked")
+            .description("Verificações de revogação de tokens")
+            .register(meterRegistry);
+        bloomFalsePositives = Counter.builder("auth.token_denylist.checks")
+            .tag("result", "bloom_false_positive")
+            .description("Verificações de revogação de tokens")
+            .register(meterRegistry);
+        storeErrors = Counter.builder("auth.token_denylist.checks")
+            .tag("result", "store_error")
+            .description("Verificações de revogação de tokens")
+            .register(meterRegistry);
+        revokeFailures = Counter.builder("auth.token_denylist.revoke_failures")
+            .description("Revogações de subject não gravadas no Redis após todas as tentativas")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Carga inicial após o startup e agenda as recargas periódicas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshExecutor.execute(this::rebuild);
+        long intervalMillis = refreshInterval.toMillis();
+        refreshExecutor.scheduleWithFixedDelay(this::rebuild, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Revoga todos os tokens do subject emitidos até agora (ex: usuário desativado).
+     * Tokens emitidos depois (ex: após reativação) continuam válidos.
+     */
+    public void revokeSubject(String subject) {
+        redisTemplate.opsForValue().set(SUBJECT_KEY_PREFIX + subject,
+            Long.toString(Instant.now().getEpochSecond()), subjectTtl);
+        addSubject(subject);
+        log.info("Tokens revogados para o subject {}", subject);
+    }
+
+    /**
+     * Revoga os tokens do subject após o commit da transação atual (imediatamente, fora de uma
+     * transação), para que a revogação nunca prenda a transação nem sobreviva a um rollback.
+     * Falhas de escrita no Redis são repetidas em background com backoff exponencial.
+     */
+    public void revokeSubjectAfterCommit(String subject) {
+        if (subject == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revokeSubjectWithRetry(subject, 1);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revokeSubjectWithRetry(subject, 1);
+            }
+        });
+    }
+
+    private void revokeSubjectWithRetry(String subject, int attempt) {
+        try {
+            revokeSubject(subject);
+        } catch (Exception e) {
+            if (attempt >= revokeMaxAttempts) {
+                revokeFailures.increment();
+                log.error("Falha ao revogar tokens do subject {} após {} tentativas: {}", subject, attempt, e.getMessage(), e);
+                return;
+            }
+            long delayMillis = revokeRetryBackoff.toMillis() << (attempt - 1);
+            log.warn("Falha ao revogar tokens do subject {} (tentativa {}); nova tentativa em {} ms: {}",
+                subject, attempt, delayMillis, e.getMessage());
+            try {
+                refreshExecutor.schedule(() -> revokeSubjectWithRetry(subject, attempt + 1), delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException rejected) {
+                revokeFailures.increment();
+                log.error("Revogação dos tokens do subject {} descartada: {}", subject, rejected.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Revoga um token específico até a sua expiração
+     */
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        Duration ttl = expiresAt != null ? Duration.between(Instant.now(), expiresAt) : subjectTtl;
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        redisTemplate.opsForValue().set(TOKEN_KEY_PREFIX + tokenId, "1", ttl);
+        addToken(tokenId);
+        log.info("Token revogado: jti={}", tokenId);
+    }
+
+    /**
+     * Adiciona um subject revogado por outro pod aos filtros locais
+     */
+    public void addSubject(String subject) {
+        if (rebuilding) {
+            addedDuringRebuild.add(SUBJECT_KEY_PREFIX + subject);
+        }
+        filters.subjects.put(subject);
+    }
+
+    /**
+     * Adiciona um token revogado por outro pod aos filtros locais
+     */
+    public void addToken(String tokenId) {
+        if (rebuilding) {
+            addedDuringRebuild.add(TOKEN_KEY_PREFIX + tokenId);
+        }
+        filters.tokens.put(tokenId);
+    }
+
+    /**
+     * Verifica se o token foi revogado (pelo subject ou pelo jti)
+     */
+    public boolean isRevoked(ValidatedToken token) {
+        Filters current = filters;
+        String subject = token.getSubject();
+        String tokenId = token.getTokenId();
+        boolean subjectMaybe = subject != null && current.subjects.mightContain(subject);
+        boolean tokenMaybe = tokenId != null && current.tokens.mightContain(tokenId);
+        if (!subjectMaybe && !tokenMaybe) {
+            bloomNegatives.increment();
+            return false;
+        }
+
+        try {
+            boolean revoked = (subjectMaybe && isSubjectRevoked(subject, token.getIssuedAt()))
+                || (tokenMaybe && Boolean.TRUE.equals(redisTemplate.hasKey(TOKEN_KEY_PREFIX + tokenId)));
+            (revoked ? storeRevoked : bloomFalsePositives).increment();
+            return revoked;
+        } catch (Exception e) {
+            storeErrors.increment();
+            log.error("Erro ao consultar tokens revogados no Redis; token rejeitado: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private boolean isSubjectRevoked(String subject, Instant issuedAt) {
+        String revokedAt = redisTemplate.opsForValue().get(SUBJECT_KEY_PREFIX + subject);
+        if (revokedAt == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getEpochSecond() <= Long.parseLong(revokedAt);
+    }
+
+    /**
+     * Recarga completa dos filtros a partir do Redis; em caso de erro os filtros atuais são mantidos
+     */
+    void rebuild() {
+        rebuilding = true;
+        try {
+            long start = System.nanoTime();
+            Filters rebuilt = newFilters();
+            int count = 0;
+            ScanOptions options = ScanOptions.scanOptions().match("auth:revoked:*").count(1000).build();
+            try (Cursor<String> keys = redisTemplate.scan(options)) {
+                while (keys.hasNext()) {
+                    rebuilt.add(keys.next());
+                    count++;
+                }
+            }
+            filters = rebuilt;
+            rebuilding = false;
+            for (String key : Set.copyOf(addedDuringRebuild)) {
+                addedDuringRebuild.remove(key);
+                rebuilt.add(key);
+            }
+            log.info("Denylist de tokens carregada: {} revogações em {} ms",
+                count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.error("Erro ao carregar a denylist de tokens; mantendo os filtros atuais: {}", e.getMessage(), e);
+        } finally {
+            rebuilding = false;
+            addedDuringRebuild.clear();
+        }
+    }
+
+    private Filters newFilters() {
+        return new Filters(
+            BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, falsePositiveRate),
+            BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, falsePositiveRate));
+    }
+
+    /**
+     * Bloom filters de subjects e de jtis revogados (thread-safe; trocados juntos a cada recarga)
+     */
+    private record Filters(BloomFilter<CharSequence> subjects, BloomFilter<CharSequence> tokens) {
+
+        void add(String key) {
+            if (key.startsWith(SUBJECT_KEY_PREFIX)) {
+                subjects.put(key.substring(SUBJECT_KEY_PREFIX.length()));
+            } else if (key.startsWith(TOKEN_KEY_PREFIX)) {
+                tokens.put(key.substring(TOKEN_KEY_PREFIX.length()));
+            }
+        }
+    }
+}
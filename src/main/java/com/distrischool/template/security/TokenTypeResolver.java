@@ -0,0 +1,42 @@
+package com.distrischool.template.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Determina o tipo de um token JWT a partir do header, sem verificar a assinatura.
+ *
+ * Tokens Auth0 e tokens enriquecidos compartilham o mesmo issuer (o enriquecido preserva
+ * o iss do Auth0), então o algoritmo do header é o que diferencia os dois:
+ * - RS256: token emitido pelo Auth0
+ * - HS256 ou ES256: token enriquecido assinado pelo EnhancedJwtService
+ *
+ * Com isso cada token é enviado diretamente ao validador correto, sem uma tentativa
+ * HMAC fadada a falhar (e a exceção correspondente) para cada token Auth0.
+ */
+@Component
+public class TokenTypeResolver {
+
+    private static final String AUTH0_ALGORITHM = "RS256";
+    private static final String ENHANCED_HMAC_ALGORITHM = "HS256";
+    private static final String ENHANCED_EC_ALGORITHM = "ES256";
+
+    /**
+     * Resolve o tipo do token a partir do header já decodificado
+     *
+     * @param jwt O token decodificado (não verificado)
+     * @return O tipo do token, ou vazio se o algoritmo não for suportado
+     */
+    public Optional<ValidatedToken.TokenType> resolve(DecodedJWT jwt) {
+        String algorithm = jwt.getAlgorithm();
+        if (AUTH0_ALGORITHM.equals(algorithm)) {
+            return Optional.of(ValidatedToken.TokenType.AUTH0);
+        }
+        if (ENHANCED_HMAC_ALGORITHM.equals(algorithm) || ENHANCED_EC_ALGORITHM.equals(algorithm)) {
+            return Optional.of(ValidatedToken.TokenType.ENHANCED);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,145 @@
+package com.distrischool.template.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória dos resultados de validação de tokens JWT.
+ *
+ * A chave é o SHA-256 do token (o token em si nunca é armazenado) e cada entrada expira
+ * no máximo no instante do claim exp do token, limitada por um TTL máximo configurável.
+ * Apenas validações bem-sucedidas são armazenadas: tokens inválidos sempre passam pela
+ * verificação completa. Quando uma chave de assinatura é removida (ou substituída sob o mesmo
+ * kid) do JWKS do Auth0 ou do registro de chaves dos tokens enriquecidos, as entradas
+ * verificadas com ela são descartadas ({@link #invalidateKeys}).
+ *
+ * Métricas expostas (Micrometer): cache_gets{result=hit|miss}, cache_evictions, cache_size
+ * com a tag cache=jwt_validation.
+ */
+@Component
+@Slf4j
+public class TokenValidationCache {
+
+    private static final String CACHE_NAME = "jwt_validation";
+
+    private final boolean enabled;
+    private final Cache<String, ValidatedToken> cache;
+
+    public TokenValidationCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.jwt.validation-cache.enabled:true}") boolean enabled,
+            @Value("${app.jwt.validation-cache.max-size:100000}") long maxSize,
+            @Value("${app.jwt.validation-cache.max-ttl:PT1H}") Duration maxTtl
+    ) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new TokenExpiry(maxTtl))
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        log.info("Cache de validação JWT inicializado: enabled={}, maxSize={}, maxTtl={}", enabled, maxSize, maxTtl);
+    }
+
+    /**
+     * Retorna o resultado em cache para o token ou executa a validação.
+     * Chamadas concorrentes para o mesmo token executam a validação apenas uma vez.
+     *
+     * @param token O token JWT
+     * @param validator Validação completa, executada apenas em caso de miss
+     * @return Os claims validados, ou vazio se o token for inválido
+     */
+    public Optional<ValidatedToken> get(String token, Supplier<Optional<ValidatedToken>> validator) {
+        if (!enabled) {
+            return validator.get();
+        }
+        return Optional.ofNullable(cache.get(TokenHashes.sha256(token), key -> validator.get().orElse(null)));
+    }
+
+    /**
+     * Remove todas as entradas do cache
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Remove as entradas do tipo de token verificadas com as chaves informadas. Tokens sem kid
+     * também são removidos, já que a chave usada para verificá-los depende das chaves configuradas.
+     *
+     * @param tokenType Origem das chaves (JWKS do Auth0 ou registro de chaves dos tokens enriquecidos)
+     * @param keyIds kids removidos ou substituídos
+     */
+    public void invalidateKeys(ValidatedToken.TokenType tokenType, Set<String> keyIds) {
+        if (keyIds.isEmpty()) {
+            return;
+        }
+        long before = cache.estimatedSize();
+        cache.asMap().values().removeIf(token -> token.getTokenType() == tokenType
+            && (token.getKeyId() == null || keyIds.contains(token.getKeyId())));
+        log.info("Cache de validação JWT: entradas {} das chaves {} descartadas ({} -> {} entradas)",
+            tokenType, keyIds, before, cache.estimatedSize());
+    }
+
+    /**
+     * kids de {@code previous} ausentes em {@code current} ou com outra chave (fingerprint diferente)
+     */
+    static Set<String> removedKeys(Map<String, String> previous, Map<String, String> current) {
+        Set<String> removed = new HashSet<>();
+        previous.forEach((kid, fingerprint) -> {
+            if (!fingerprint.equals(current.get(kid))) {
+                removed.add(kid);
+            }
+        });
+        return removed;
+    }
+
+    /**
+     * Expira cada entrada no exp do token, limitado pelo TTL máximo
+     */
+    private static final class TokenExpiry implements Expiry<String, ValidatedToken> {
+
+        private final long maxTtlNanos;
+
+        private TokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, ValidatedToken value, long currentTime) {
+            Instant expiresAt = value.getExpiresAt();
+            if (expiresAt == null) {
+                return maxTtlNanos;
+            }
+            long remainingMillis = expiresAt.toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, Math.min(TimeUnit.MILLISECONDS.toNanos(remainingMillis), maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ValidatedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, ValidatedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.distrischool.template.security;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.UrlJwkProvider;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * JWKS obtido via HTTP(S): o endpoint do Auth0 (https://{domain}/.well-known/jwks.json)
+ * ou um servidor local que simula o Auth0 em testes de carga.
+ */
+public class UrlJwksSource implements JwksSource {
+
+    private final URL url;
+    private final UrlJwkProvider provider;
+
+    public UrlJwksSource(String url, Duration timeout) {
+        try {
+            this.url = URI.create(url).toURL();
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            throw new IllegalStateException("URL JWKS inválida: " + url, e);
+        }
+        int timeoutMillis = (int) timeout.toMillis();
+        this.provider = new UrlJwkProvider(this.url, timeoutMillis, timeoutMillis);
+    }
+
+    @Override
+    public List<Jwk> load() throws Exception {
+        return provider.getAll();
+    }
+
+    @Override
+    public String describe() {
+        return url.toString();
+    }
+}
@@ -0,0 +1,179 @@
+package com.distrischool.template.security;
+
+import com.distrischool.template.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice em memória userId → máscara de roles ({@link AuthorityMasks}) dos usuários ativos.
+ *
+ * Usado nas verificações de permission via gRPC (CheckPermission/CheckPermissions): combinado
+ * com o snapshot do PermissionService, uma verificação é apenas uma consulta em mapa e um AND
+ * de bits, sem acesso ao banco.
+ *
+ * Atualização:
+ * - carga completa (projeção userId/role_mask) no startup e a cada refresh-interval, trocada de forma atômica
+ * - por usuário: {@link #refreshAfterCommit(Long)} pelo UserService/AuthService no pod que alterou o
+ *   usuário e {@link #refresh(Long)} a cada evento distrischool.auth.user.created/updated/deactivated
+ *   (UserRoleIndexListener, recebido por todos os pods; os eventos são publicados após o commit)
+ *
+ * Enquanto a carga completa não foi concluída, usuários ausentes do índice são buscados no banco.
+ */
+@Component
+@Slf4j
+public class UserRoleIndex {
+
+    private final UserRepository userRepository;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService refreshExecutor;
+
+    private volatile Map<Long, Integer> roleMaskByUserId = new ConcurrentHashMap<>();
+    private volatile boolean complete;
+
+    /**
+     * Usuários atualizados durante uma recarga completa; são recarregados novamente após a troca
+     * para que a recarga (lida antes do evento) não sobrescreva a atualização
+     */
+    private final Set<Long> refreshedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    public UserRoleIndex(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.user-role-index.refresh-interval:PT5M}") Duration refreshInterval
+    ) {
+        this.userRepository = userRepository;
+        this.refreshInterval = refreshInterval;
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-role-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("auth.user_role_index.size", this, index -> index.roleMaskByUserId.size())
+            .description("Usuários ativos no índice de roles em memória")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Carga inicial após o startup e agenda as recargas periódicas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshExecutor.execute(this::rebuild);
+        long intervalMillis = refreshInterval.toMillis();
+        refreshExecutor.scheduleWithFixedDelay(this::rebuild, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Máscara de roles de um usuário ativo
+     *
+     * @param userId ID do usuário
+     * @return A máscara (0 se o usuário não tem roles), ou vazio se o usuário não existe ou está inativo
+     */
+    public OptionalInt getRoleMask(long userId) {
+        Integer roleMask = roleMaskByUserId.get(userId);
+        if (roleMask != null) {
+            return OptionalInt.of(roleMask);
+        }
+        if (complete) {
+            return OptionalInt.empty();
+        }
+        return refresh(userId);
+    }
+
+    /**
+     * Recarrega um usuário do banco (ou o remove do índice se não existe ou está inativo)
+     */
+    public OptionalInt refresh(Long userId) {
+        if (userId == null) {
+            return OptionalInt.empty();
+        }
+        if (rebuilding) {
+            refreshedDuringRebuild.add(userId);
+        }
+        Optional<Integer> roleMask = userRepository.findActiveRoleMaskById(userId);
+        if (roleMask.isEmpty()) {
+            roleMaskByUserId.remove(userId);
+            return OptionalInt.empty();
+        }
+        roleMaskByUserId.put(userId, roleMask.get());
+        return OptionalInt.of(roleMask.get());
+    }
+
+    /**
+     * Recarrega o usuário após o commit da transação atual (ou imediatamente, fora de uma
+     * transação), para que a leitura já veja a alteração
+     */
+    public void refreshAfterCommit(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    refresh(userId);
+                } catch (Exception e) {
+                    log.error("Erro ao atualizar o índice de roles para o usuário {}: {}", userId, e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Recarga completa do índice; em caso de erro o índice atual é mantido
+     */
+    void rebuild() {
+        rebuilding = true;
+        try {
+            long start = System.nanoTime();
+            Map<Long, Integer> rebuilt = new ConcurrentHashMap<>();
+            for (UserRepository.UserRoleMaskView row : userRepository.findActiveUserRoleMasks()) {
+                rebuilt.put(row.getUserId(), row.getRoleMask());
+            }
+            roleMaskByUserId = rebuilt;
+            complete = true;
+            rebuilding = false;
+            for (Long userId : List.copyOf(refreshedDuringRebuild)) {
+                refreshedDuringRebuild.remove(userId);
+                refresh(userId);
+            }
+            log.info("Índice de roles carregado: {} usuários ativos em {} ms",
+                rebuilt.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.error("Erro ao carregar o índice de roles; mantendo o índice atual: {}", e.getMessage(), e);
+        } finally {
+            rebuilding = false;
+            refreshedDuringRebuild.clear();
+        }
+    }
+}
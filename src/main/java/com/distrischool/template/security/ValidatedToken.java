@@ -0,0 +1,98 @@
+package com.distrischool.template.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Resultado imutável da validação de um token JWT.
+ *
+ * O token é verificado uma única vez (assinatura, issuer, audience, expiração) e
+ * todos os claims necessários são extraídos nesse momento, evitando que cada
+ * consulta de claim dispare uma nova verificação RSA/HMAC.
+ */
+@Value
+@Builder
+public class ValidatedToken {
+
+    /**
+     * Origem do token validado
+     */
+    public enum TokenType {
+        /** Token emitido diretamente pelo Auth0 (RS256) */
+        AUTH0,
+        /** Token enriquecido emitido pelo EnhancedJwtService */
+        ENHANCED
+    }
+
+    TokenType tokenType;
+
+    /**
+     * kid do header do token (null se ausente); usado para invalidar o cache de validação quando
+     * a chave é removida
+     */
+    String keyId;
+
+    /**
+     * ID do token (jti claim; null se ausente)
+     */
+    String tokenId;
+
+    /**
+     * Auth0 ID (sub claim)
+     */
+    String subject;
+
+    /**
+     * ID interno do usuário (claim uid dos tokens enriquecidos; null em tokens Auth0)
+     */
+    Long userId;
+
+    String email;
+
+    String name;
+
+    @Builder.Default
+    List<String> roles = List.of();
+
+    @Builder.Default
+    List<String> permissions = List.of();
+
+    /**
+     * Máscara de roles ({@link AuthorityMasks}) dos tokens enriquecidos no formato compacto; -1 se ausente
+     */
+    @Builder.Default
+    int roleMask = -1;
+
+    /**
+     * Máscara de permissions ({@link AuthorityMasks}) dos tokens enriquecidos no formato compacto; -1 se ausente
+     */
+    @Builder.Default
+    long permissionMask = -1L;
+
+    /**
+     * Época de autorização do usuário na emissão (claim aep dos tokens enriquecidos); -1 se ausente
+     */
+    @Builder.Default
+    int authzEpoch = -1;
+
+    Instant issuedAt;
+
+    Instant expiresAt;
+
+    /**
+     * Username exposto aos outros serviços (email é usado como username)
+     */
+    public String getUsername() {
+        return email;
+    }
+
+    /**
+     * Data de expiração em epoch millis (0 se o token não possui exp)
+     */
+    public long getExpiresAtMillis() {
+        return expiresAt != null ? expiresAt.toEpochMilli() : 0L;
+    }
+}
@@ -0,0 +1,245 @@
+package com.distrischool.template.service;
+
+import com.distrischool.template.config.Auth0ClientHttpRequestFactory;
+import com.distrischool.template.config.Auth0ClientHttpRequestFactory.Endpoint;
+import com.distrischool.template.config.Auth0Config;
+import com.distrischool.template.config.Auth0HttpMetrics;
+import com.distrischool.template.entity.UserRole;
+import com.distrischool.template.service.Auth0ManagementService.Auth0LoginResponse;
+import com.distrischool.template.service.Auth0ManagementService.Auth0User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Cliente Auth0 não bloqueante: versões de login, createUser e findUserByEmail do
+ * {@link Auth0ManagementService} que retornam {@link CompletableFuture}s.
+ *
+ * As chamadas usam o sendAsync do HttpClient do Auth0 (mesmo pool de conexões, timeouts por
+ * endpoint e métricas do auth0RestTemplate), então nenhuma thread fica bloqueada esperando o
+ * Auth0; os futures completam nas threads do cliente HTTP (auth0-http-*). O token da Management
+ * API também é obtido sem bloquear ({@link Auth0ManagementTokenProvider#getTokenAsync()}).
+ *
+ * Os erros seguem o cliente síncrono: login e createUser completam com exceção, findUserByEmail
+ * completa com null quando o usuário não é encontrado.
+ */
+@Service
+@Slf4j
+public class Auth0AsyncClient {
+
+    private final Auth0Config auth0Config;
+    private final HttpClient httpClient;
+    private final Auth0ClientHttpRequestFactory requestFactory;
+    private final Auth0HttpMetrics httpMetrics;
+    private final Auth0ManagementTokenProvider managementTokenProvider;
+    private final ObjectMapper objectMapper;
+
+    public Auth0AsyncClient(
+            Auth0Config auth0Config,
+            @Qualifier("auth0HttpClient") HttpClient httpClient,
+            Auth0ClientHttpRequestFactory requestFactory,
+            Auth0HttpMetrics httpMetrics,
+            Auth0ManagementTokenProvider managementTokenProvider,
+            ObjectMapper objectMapper
+    ) {
+        this.auth0Config = auth0Config;
+        this.httpClient = httpClient;
+        this.requestFactory = requestFactory;
+        this.httpMetrics = httpMetrics;
+        this.managementTokenProvider = managementTokenProvider;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Autentica um usuário e retorna um token de acesso Auth0
+     */
+    public CompletableFuture<Auth0LoginResponse> login(String email, String password) {
+        Map<String, String> loginData = new HashMap<>();
+        loginData.put("client_id", auth0Config.getClientId());
+        loginData.put("client_secret", auth0Config.getClientSecret());
+        loginData.put("audience", auth0Config.getAudience());
+        loginData.put("grant_type", "http://auth0.com/oauth/grant-type/password-realm");
+        loginData.put("username", email);
+        loginData.put("password", password);
+        loginData.put("scope", "openid profile email");
+        loginData.put("realm", auth0Config.getConnection());
+
+        log.info("Tentando autenticar usuário: {} com conexão: {}", email, auth0Config.getConnection());
+
+        URI uri = URI.create(String.format("https://%s/oauth/token", auth0Config.getDomain()));
+        return send(jsonRequest(uri, "POST", loginData, null))
+            .thenApply(response -> {
+                if (response.statusCode() != HttpStatus.OK.value()) {
+                    log.error("Falha no login - Status: {}, Body: {}", response.statusCode(), response.body());
+                    throw new RuntimeException("Falha na autenticação: Credenciais inválidas");
+                }
+                JsonNode tokenNode = readTree(response.body());
+                log.info("Login bem-sucedido para usuário: {}", email);
+                return Auth0LoginResponse.builder()
+                    .accessToken(tokenNode.get("access_token").asText())
+                    .tokenType(tokenNode.get("token_type").asText())
+                    .expiresIn(tokenNode.get("expires_in").asInt())
+                    .build();
+            });
+    }
+
+    /**
+     * Cria um novo usuário no Auth0; se o email já existir (409), retorna o usuário existente
+     */
+    public CompletableFuture<Auth0User> createUser(String email, String password, String firstName, String lastName,
+                                                   String phone, String documentNumber, UserRole role) {
+        Map<String, Object> userData = new HashMap<>();
+        userData.put("email", email);
+        userData.put("password", password);
+        userData.put("given_name", firstName);
+        userData.put("family_name", lastName);
+        userData.put("name", firstName + " " + lastName);
+        userData.put("email_verified", false);
+        userData.put("connection", auth0Config.getConnection());
+
+        Map<String, Object> userMetadata = new HashMap<>();
+        userMetadata.put("document_number", documentNumber);
+        userData.put("user_metadata", userMetadata);
+
+        Map<String, Object> appMetadata = new HashMap<>();
+        appMetadata.put("role", role.name());
+        userData.put("app_metadata", appMetadata);
+
+        URI uri = URI.create(String.format("https://%s/api/v2/users", auth0Config.getDomain()));
+        log.info("Criando usuário no Auth0 - URL: {}", uri);
+
+        return managementTokenProvider.getTokenAsync()
+            .thenCompose(accessToken -> sendManagement(jsonRequest(uri, "POST", userData, accessToken)))
+            .thenCompose(response -> {
+                if (response.statusCode() == HttpStatus.CREATED.value()) {
+                    JsonNode userNode = readTree(response.body());
+                    log.info("Usuário criado no Auth0: {}", email);
+                    return CompletableFuture.completedFuture(Auth0User.builder()
+                        .auth0Id(userNode.get("user_id").asText())
+                        .email(userNode.get("email").asText())
+                        .firstName(userNode.get("given_name").asText())
+                        .lastName(userNode.get("family_name").asText())
+                        .emailVerified(userNode.get("email_verified").asBoolean())
+                        .build());
+                }
+                if (response.statusCode() == HttpStatus.CONFLICT.value()) {
+                    log.warn("Usuário já existe no Auth0: {}. Tentando buscar usuário existente.", email);
+                    return findUserByEmail(email).thenApply(existingUser -> {
+                        if (existingUser == null) {
+                            log.error("Usuário já existe no Auth0 mas não foi possível recuperá-lo: {}", email);
+                            throw new RuntimeException("Usuário já existe no Auth0, mas não foi possível recuperá-lo. Tente fazer login ou recuperar senha.");
+                        }
+                        log.info("Usuário existente encontrado e retornado: {}", email);
+                        return existingUser;
+                    });
+                }
+                log.error("Erro ao criar usuário no Auth0 - Status: {}, Body: {}", response.statusCode(), response.body());
+                throw new RuntimeException("Falha ao criar usuário no Auth0: " + response.body());
+            });
+    }
+
+    /**
+     * Busca um usuário existente no Auth0 pelo email (null se não encontrado ou em caso de erro)
+     */
+    public CompletableFuture<Auth0User> findUserByEmail(String email) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(String.format("https://%s/api/v2/users-by-email", auth0Config.getDomain()))
+            .queryParam("email", email)
+            .encode()
+            .build()
+            .toUri();
+
+        log.info("Buscando usuário no Auth0 por email: {}", email);
+
+        return managementTokenProvider.getTokenAsync()
+            .thenCompose(accessToken -> sendManagement(jsonRequest(uri, "GET", null, accessToken)))
+            .thenApply(response -> {
+                if (response.statusCode() == HttpStatus.OK.value()) {
+                    JsonNode arrayNode = readTree(response.body());
+                    if (arrayNode.isArray() && arrayNode.size() > 0) {
+                        JsonNode userNode = arrayNode.get(0);
+                        log.info("Usuário existente localizado no Auth0 para {}: {}", email, userNode.get("user_id").asText());
+                        return Auth0User.builder()
+                            .auth0Id(userNode.get("user_id").asText())
+                            .email(userNode.get("email").asText())
+                            .firstName(userNode.hasNonNull("given_name") ? userNode.get("given_name").asText() : "")
+                            .lastName(userNode.hasNonNull("family_name") ? userNode.get("family_name").asText() : "")
+                            .emailVerified(userNode.get("email_verified").asBoolean())
+                            .build();
+                    }
+                }
+                log.warn("Não foi possível localizar usuário existente no Auth0 para {}", email);
+                return (Auth0User) null;
+            })
+            .exceptionally(e -> {
+                log.error("Erro ao buscar usuário no Auth0 por email {}: {}", email, e.getMessage(), e);
+                return null;
+            });
+    }
+
+    /**
+     * Chamada à Management API; um 401 descarta o token em cache
+     */
+    private CompletableFuture<HttpResponse<String>> sendManagement(HttpRequest request) {
+        return send(request).thenApply(response -> {
+            if (response.statusCode() == HttpStatus.UNAUTHORIZED.value()) {
+                managementTokenProvider.invalidate();
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Envia a requisição sem bloquear, com o timeout do endpoint, registrando as métricas
+     */
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        Endpoint endpoint = Endpoint.of(request.uri());
+        long start = httpMetrics.start();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, error) -> httpMetrics.record(endpoint, request.method(),
+                error == null ? Integer.toString(response.statusCode()) : Auth0HttpMetrics.errorStatus(error), start));
+    }
+
+    private HttpRequest jsonRequest(URI uri, String method, Object body, String accessToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+            .timeout(requestFactory.timeout(Endpoint.of(uri)))
+            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (accessToken != null) {
+            builder.header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+        }
+        if (body == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        try {
+            return builder
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Falha ao serializar requisição para o Auth0", e);
+        }
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
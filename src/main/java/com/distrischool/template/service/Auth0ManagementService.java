@@ -6,8 +6,8 @@
 import com.distrischool.template.entity.UserRole;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -24,13 +24,26 @@
  * Permite criar, atualizar e gerenciar usuários no Auth0 programaticamente.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class Auth0ManagementService {
 
     private final Auth0Config auth0Config;
-    private final RestTemplate restTemplate;
+    private final RestTemplate auth0RestTemplate;
     private final ObjectMapper objectMapper;
+    private final Auth0ManagementTokenProvider managementTokenProvider;
+
+    public Auth0ManagementService(
+            Auth0Config auth0Config,
+            @Qualifier("auth0RestTemplate") RestTemplate auth0RestTemplate,
+            ObjectMapper objectMapper,
+            Auth0ManagementTokenProvider managementTokenProvider
+    ) {
+        this.auth0Config = auth0Config;
+        this.auth0RestTemplate = auth0RestTemplate;
+        this.objectMapper = objectMapper;
+        this.managementTokenProvider = managementTokenProvider;
+    }
+
     /**
      * Cria um novo usuário no Auth0
      */
@@ -71,7 +84,7 @@ public Auth0User createUser(String email, String password, String firstName, Str
             log.info("Criando usuário no Auth0 - URL: {}", url);
             log.info("Dados do usuário: {}", userData);
             
-            ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
+            ResponseEntity<String> response = auth0RestTemplate.postForEntity(url, request, String.class);
             
             log.info("Resposta da criação de usuário - Status: {}", response.getStatusCode());
             log.info("Body da resposta: {}", response.getBody());
@@ -93,6 +106,7 @@ public Auth0User createUser(String email, String password, String firstName, Str
             }
             
         } catch (HttpClientErrorException e) {
+            invalidateTokenIfUnauthorized(e);
             if (e.getStatusCode() == HttpStatus.CONFLICT) {
                 log.warn("Usuário já existe no Auth0: {}. Tentando buscar usuário existente.", email);
                 Auth0User existingUser = findUserByEmail(email);
@@ -135,7 +149,7 @@ public Auth0User findUserByEmail(String email) {
             log.info("Buscando usuário no Auth0 por email: {}", email);
             log.info("URL da requisição: {}", url);
 
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+            ResponseEntity<String> response = auth0RestTemplate.exchange(url, HttpMethod.GET, request, String.class);
 
             if (response.getStatusCode() == HttpStatus.OK) {
                 JsonNode arrayNode = objectMapper.readTree(response.getBody());
@@ -158,6 +172,10 @@ public Auth0User findUserByEmail(String email) {
 
             log.warn("Não foi possível localizar usuário existente no Auth0 para {}", email);
             return null;
+        } catch (HttpClientErrorException e) {
+            invalidateTokenIfUnauthorized(e);
+            log.error("Erro ao buscar usuário no Auth0 por email {}: {}", email, e.getMessage(), e);
+            return null;
         } catch (Exception e) {
             log.error("Erro ao buscar usuário no Auth0 por email {}: {}", email, e.getMessage(), e);
             return null;
@@ -190,7 +208,7 @@ public Auth0LoginResponse login(String email, String password) {
             String url = String.format("https://%s/oauth/token", auth0Config.getDomain());
             log.debug("Auth0 login request: {}", loginData);
             
-            ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
+            ResponseEntity<String> response = auth0RestTemplate.postForEntity(url, request, String.class);
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 JsonNode tokenNode = objectMapper.readTree(response.getBody());
@@ -230,7 +248,7 @@ public void sendPasswordResetEmail(String email) {
             String url = String.format("https://%s/dbconnections/change_password", auth0Config.getDomain());
             log.info("Solicitando reset de senha no Auth0 para {}", email);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
+            ResponseEntity<String> response = auth0RestTemplate.postForEntity(url, request, String.class);
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Reset de senha solicitado com sucesso para {}. Resposta: {}", email, response.getBody());
@@ -303,7 +321,7 @@ public void resetPassword(String token, String newPassword) {
                     URLEncoder.encode(auth0Id, StandardCharsets.UTF_8));
             log.info("Resetando senha no Auth0 para usuário: {}", auth0Id);
             
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.PATCH, request, String.class);
+            ResponseEntity<String> response = auth0RestTemplate.exchange(url, HttpMethod.PATCH, request, String.class);
             
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Senha resetada com sucesso para usuário: {}", auth0Id);
@@ -314,6 +332,7 @@ public void resetPassword(String token, String newPassword) {
             throw new RuntimeException("Falha ao resetar senha: " + response.getBody());
             
         } catch (HttpClientErrorException e) {
+            invalidateTokenIfUnauthorized(e);
             log.error("Erro ao resetar senha no Auth0: {}", e.getMessage(), e);
             throw new RuntimeException("Falha ao resetar senha: " + e.getResponseBodyAsString(), e);
         } catch (Exception e) {
@@ -373,7 +392,7 @@ public void verifyEmail(String token) {
                     URLEncoder.encode(auth0Id, StandardCharsets.UTF_8));
             log.info("Verificando email no Auth0 para usuário: {}", auth0Id);
             
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.PATCH, request, String.class);
+            ResponseEntity<String> response = auth0RestTemplate.exchange(url, HttpMethod.PATCH, request, String.class);
             
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Email verificado com sucesso para usuário: {}", auth0Id);
@@ -384,6 +403,7 @@ public void verifyEmail(String token) {
             throw new RuntimeException("Falha ao verificar email: " + response.getBody());
             
         } catch (HttpClientErrorException e) {
+            invalidateTokenIfUnauthorized(e);
             log.error("Erro ao verificar email no Auth0: {}", e.getMessage(), e);
             throw new RuntimeException("Falha ao verificar email: " + e.getResponseBodyAsString(), e);
         } catch (Exception e) {
@@ -393,44 +413,18 @@ public void verifyEmail(String token) {
     }
 
     /**
-     * Obtém token de acesso para a Management API
+     * Obtém token de acesso para a Management API (em cache, ver Auth0ManagementTokenProvider)
      */
     private String getManagementApiToken() {
-        try {
-            Map<String, String> tokenData = new HashMap<>();
-            tokenData.put("client_id", auth0Config.getClientId());
-            tokenData.put("client_secret", auth0Config.getClientSecret());
-            tokenData.put("audience", String.format("https://%s/api/v2/", auth0Config.getDomain()));
-            tokenData.put("grant_type", "client_credentials");
-            tokenData.put("scope", "create:users read:users update:users");
-            
-            log.info("Solicitando token da Management API para client_id: {}", auth0Config.getClientId());
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            HttpEntity<Map<String, String>> request = new HttpEntity<>(tokenData, headers);
-            
-            String url = String.format("https://%s/oauth/token", auth0Config.getDomain());
-            log.info("Fazendo requisição para: {}", url);
-            
-            ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
-            
-            log.info("Resposta da Management API - Status: {}", response.getStatusCode());
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode tokenNode = objectMapper.readTree(response.getBody());
-                String accessToken = tokenNode.get("access_token").asText();
-                log.info("Token obtido com sucesso, tamanho: {}", accessToken.length());
-                return accessToken;
-            } else {
-                log.error("Falha ao obter token - Status: {}, Body: {}", response.getStatusCode(), response.getBody());
-                throw new RuntimeException("Falha ao obter token da Management API: " + response.getBody());
-            }
-            
-        } catch (Exception e) {
-            log.error("Erro ao obter token da Management API: {}", e.getMessage(), e);
-            throw new RuntimeException("Falha ao obter token da Management API", e);
+        return managementTokenProvider.getToken();
+    }
+
+    /**
+     * Descarta o token em cache se a Management API o rejeitou
+     */
+    private void invalidateTokenIfUnauthorized(HttpClientErrorException e) {
+        if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+            managementTokenProvider.invalidate();
         }
     }
 
@@ -0,0 +1,267 @@
+package com.distrischool.template.service;
+
+import com.distrischool.template.config.Auth0Config;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token de acesso da Auth0 Management API (grant client_credentials), mantido em cache.
+ *
+ * O token é reutilizado até pouco antes do expires_in (expiry-margin). Quando faltam menos de
+ * refresh-ahead para a expiração, a próxima chamada dispara um refresh em background e continua
+ * usando o token atual; apenas sem nenhum token válido (startup, expiração ou invalidação) as
+ * threads esperam pela busca, no máximo fetch-timeout.
+ *
+ * Existe no máximo uma busca em andamento, compartilhada entre todas as threads (single-flight),
+ * então chamadas concorrentes nunca disparam várias requisições ao /oauth/token.
+ */
+@Component
+@Slf4j
+public class Auth0ManagementTokenProvider {
+
+    private final Auth0Config auth0Config;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration refreshAhead;
+    private final Duration expiryMargin;
+    private final Duration fetchTimeout;
+    private final ExecutorService fetchExecutor;
+
+    private final Timer fetchSuccess;
+    private final Timer fetchFailure;
+    private final Counter cacheHits;
+    private final Counter cacheRefreshAhead;
+    private final Counter cacheMisses;
+
+    private final AtomicReference<CompletableFuture<CachedToken>> inFlightFetch = new AtomicReference<>();
+    private volatile CachedToken cached;
+
+    public Auth0ManagementTokenProvider(
+            Auth0Config auth0Config,
+            @Qualifier("auth0RestTemplate") RestTemplate restTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.auth0.management-token.refresh-ahead:PT5M}") Duration refreshAhead,
+            @Value("${app.auth.auth0.management-token.expiry-margin:PT30S}") Duration expiryMargin,
+            @Value("${app.auth.auth0.management-token.fetch-timeout:PT10S}") Duration fetchTimeout
+    ) {
+        this.auth0Config = auth0Config;
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.refreshAhead = refreshAhead;
+        this.expiryMargin = expiryMargin;
+        this.fetchTimeout = fetchTimeout;
+        this.fetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth0-management-token-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        fetchSuccess = Timer.builder("auth0.management_token.fetches")
+            .tag("result", "success")
+            .description("Buscas de token da Auth0 Management API")
+            .register(meterRegistry);
+        fetchFailure = Timer.builder("auth0.management_token.fetches")
+            .tag("result", "failure")
+            .description("Buscas de token da Auth0 Management API")
+            .register(meterRegistry);
+        cacheHits = Counter.builder("auth0.management_token.requests")
+            .tag("result", "hit")
+            .description("Solicitações do token da Management API")
+            .register(meterRegistry);
+        cacheRefreshAhead = Counter.builder("auth0.management_token.requests")
+            .tag("result", "refresh_ahead")
+            .description("Solicitações do token da Management API")
+            .register(meterRegistry);
+        cacheMisses = Counter.builder("auth0.management_token.requests")
+            .tag("result", "miss")
+            .description("Solicitações do token da Management API")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Retorna um token válido da Management API, buscando um novo apenas quando necessário
+     */
+    public String getToken() {
+        CachedToken current = validCachedToken();
+        if (current != null) {
+            return current.value();
+        }
+
+        try {
+            return fetch().get(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS).value();
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Tempo esgotado ao obter token da Management API", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Falha ao obter token da Management API", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Falha ao obter token da Management API", e);
+        }
+    }
+
+    /**
+     * Versão não bloqueante de {@link #getToken()}: completa imediatamente com o token em cache,
+     * ou quando a busca em andamento terminar
+     */
+    public CompletableFuture<String> getTokenAsync() {
+        CachedToken current = validCachedToken();
+        if (current != null) {
+            return CompletableFuture.completedFuture(current.value());
+        }
+        // copy(): o timeout desta chamada não deve completar a busca compartilhada
+        return fetch().copy()
+            .orTimeout(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .thenApply(CachedToken::value);
+    }
+
+    /**
+     * Token em cache ainda utilizável (disparando o refresh em background se estiver próximo da
+     * expiração), ou null se for preciso esperar por uma nova busca
+     */
+    private CachedToken validCachedToken() {
+        CachedToken current = cached;
+        long now = System.nanoTime();
+        if (current != null && now - current.expiresAtNanos() < 0) {
+            if (now - current.refreshAtNanos() >= 0) {
+                cacheRefreshAhead.increment();
+                fetch();
+            } else {
+                cacheHits.increment();
+            }
+            return current;
+        }
+        cacheMisses.increment();
+        return null;
+    }
+
+    /**
+     * Descarta o token em cache (ex: rejeitado pela Management API com 401); a próxima chamada
+     * busca um novo token
+     */
+    public void invalidate() {
+        cached = null;
+        log.warn("Token da Management API descartado; será buscado novamente");
+    }
+
+    /**
+     * Dispara a busca de um novo token, ou retorna a busca já em andamento (single-flight)
+     */
+    private CompletableFuture<CachedToken> fetch() {
+        while (true) {
+            CompletableFuture<CachedToken> current = inFlightFetch.get();
+            if (current != null) {
+                return current;
+            }
+            CompletableFuture<CachedToken> fetch = new CompletableFuture<>();
+            if (inFlightFetch.compareAndSet(null, fetch)) {
+                try {
+                    fetchExecutor.execute(() -> loadToken(fetch));
+                } catch (RuntimeException e) {
+                    inFlightFetch.compareAndSet(fetch, null);
+                    fetch.completeExceptionally(e);
+                }
+                return fetch;
+            }
+        }
+    }
+
+    private void loadToken(CompletableFuture<CachedToken> fetch) {
+        long start = System.nanoTime();
+        try {
+            CachedToken token = requestToken(start);
+            cached = token;
+            fetchSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            fetch.complete(token);
+        } catch (Exception e) {
+            // Mantém o token atual (se ainda válido) quando o Auth0 estiver indisponível
+            fetchFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("Erro ao obter token da Management API: {}", e.getMessage(), e);
+            fetch.completeExceptionally(e);
+        } finally {
+            inFlightFetch.compareAndSet(fetch, null);
+        }
+    }
+
+    /**
+     * Requisição client_credentials ao /oauth/token
+     */
+    private CachedToken requestToken(long requestedAtNanos) throws Exception {
+        Map<String, String> tokenData = new HashMap<>();
+        tokenData.put("client_id", auth0Config.getClientId());
+        tokenData.put("client_secret", auth0Config.getClientSecret());
+        tokenData.put("audience", String.format("https://%s/api/v2/", auth0Config.getDomain()));
+        tokenData.put("grant_type", "client_credentials");
+        tokenData.put("scope", "create:users read:users update:users");
+
+        log.info("Solicitando token da Management API para client_id: {}", auth0Config.getClientId());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpEntity<Map<String, String>> request = new HttpEntity<>(tokenData, headers);
+
+        String url = String.format("https://%s/oauth/token", auth0Config.getDomain());
+        ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
+
+        if (response.getStatusCode() != HttpStatus.OK) {
+            throw new IllegalStateException("Falha ao obter token da Management API - Status: "
+                + response.getStatusCode() + ", Body: " + response.getBody());
+        }
+
+        JsonNode tokenNode = objectMapper.readTree(response.getBody());
+        String accessToken = tokenNode.get("access_token").asText();
+        // expires_in é contado a partir da requisição, não da resposta
+        Duration expiresIn = Duration.ofSeconds(tokenNode.path("expires_in").asLong(0));
+        Duration usableFor = expiresIn.minus(expiryMargin);
+        if (usableFor.isNegative() || usableFor.isZero()) {
+            usableFor = expiresIn.dividedBy(2);
+        }
+        Duration refreshAfter = expiresIn.minus(refreshAhead);
+        if (refreshAfter.isNegative() || refreshAfter.compareTo(usableFor) > 0) {
+            refreshAfter = usableFor.dividedBy(2);
+        }
+
+        log.info("Token da Management API obtido, expira em {}s; refresh a partir de {}s",
+            expiresIn.toSeconds(), refreshAfter.toSeconds());
+        return new CachedToken(accessToken,
+            requestedAtNanos + usableFor.toNanos(),
+            requestedAtNanos + refreshAfter.toNanos());
+    }
+
+    /**
+     * Token em cache com os instantes (System.nanoTime) de expiração local e de início do refresh
+     */
+    private record CachedToken(String value, long expiresAtNanos, long refreshAtNanos) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.distrischool.template.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Pool limitado para as etapas de banco das operações assíncronas do {@link AuthService}
+ * (loginAsync, registerAsync).
+ *
+ * Os futures do {@link Auth0AsyncClient} completam nas threads do cliente HTTP do Auth0 (pool
+ * sem limite); a transação de sincronização com o banco local roda aqui, com no máximo
+ * pool-size threads (por padrão o tamanho do pool do Hikari), para que picos de login não
+ * criem mais threads esperando conexão do que o banco atende. Com a fila cheia a etapa falha
+ * imediatamente.
+ *
+ * O MDC da thread que monta o pipeline (thread da requisição) é restaurado durante a etapa.
+ * Métricas: executor.* {name=auth-async-db}.
+ */
+@Component
+@Slf4j
+public class AuthDbExecutor {
+
+    private final ExecutorService executor;
+
+    public AuthDbExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.async-db.pool-size:20}") int poolSize,
+            @Value("${app.auth.async-db.queue-capacity:500}") int queueCapacity
+    ) {
+        // Não exposto como bean: um Executor no contexto desativaria o executor padrão do Spring Boot
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "auth-async-db-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "auth-async-db");
+
+        log.info("Pool das etapas de banco assíncronas: poolSize={}, queueCapacity={}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Etapa para thenCompose que executa a função neste pool, com o MDC capturado agora.
+     * Uma rejeição (fila cheia) completa o future com {@link RejectedExecutionException}, em vez
+     * de ser lançada na thread que completou a etapa anterior.
+     */
+    public <T, R> Function<T, CompletableFuture<R>> stage(Function<T, R> function) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return input -> {
+            try {
+                return CompletableFuture.supplyAsync(() -> withContext(context, function, input), executor);
+            } catch (RejectedExecutionException e) {
+                log.warn("Fila das etapas de banco assíncronas cheia; requisição rejeitada");
+                return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Serviço sobrecarregado, tente novamente", e));
+            }
+        };
+    }
+
+    private static <T, R> R withContext(Map<String, String> context, Function<T, R> function, T input) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        if (context != null) {
+            MDC.setContextMap(context);
+        } else {
+            MDC.clear();
+        }
+        try {
+            return function.apply(input);
+        } finally {
+            if (previous != null) {
+                MDC.setContextMap(previous);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+}
@@ -14,15 +14,20 @@
 import com.distrischool.template.feign.TeacherServiceClient;
 import com.distrischool.template.kafka.auth.Auth0EventProducer;
 import com.distrischool.template.metrics.AuthMetricsRecorder;
-import com.distrischool.template.repository.RoleRepository;
 import com.distrischool.template.repository.UserRepository;
+import com.distrischool.template.security.TokenDenylist;
+import com.distrischool.template.security.UserRoleIndex;
+import com.distrischool.template.security.ValidatedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -35,8 +40,14 @@
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final Auth0ManagementService auth0ManagementService;
+    private final Auth0AsyncClient auth0AsyncClient;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthDbExecutor authDbExecutor;
+    private final UserRoleIndex userRoleIndex;
+    private final JwtService jwtService;
+    private final TokenDenylist tokenDenylist;
     private final Auth0EventProducer auth0EventProducer;
     private final AuthMetricsRecorder metricsRecorder;
     private final StudentServiceClient studentServiceClient;
@@ -55,31 +66,7 @@ public AuthResponse login(LoginRequest request) {
             Auth0ManagementService.Auth0LoginResponse auth0Response = 
                 auth0ManagementService.login(request.getEmail(), request.getPassword());
             
-            // 2. Decodificar token para obter informações do usuário
-            DecodedJWT decodedJWT = JWT.decode(auth0Response.getAccessToken());
-            String auth0Id = decodedJWT.getSubject();
-            String email = decodedJWT.getClaim("email").asString();
-            
-            // 3. Buscar ou sincronizar usuário no banco local
-            User user = userRepository.findByAuth0Id(auth0Id)
-                .orElseGet(() -> {
-                    // Se não existe, busca por email (pode ser usuário antigo)
-                    return userRepository.findByEmailIgnoreCase(email)
-                        .orElseThrow(() -> new BusinessException("Usuário não encontrado no sistema"));
-                });
-            
-            // 4. Atualizar último login
-            user.updateLastLogin();
-            userRepository.save(user);
-            
-            // 5. Publicar evento de login
-            auth0EventProducer.publishUserLogged(user.getId(), user.getEmail(), user.getAuth0Id());
-            
-            // 6. Construir resposta com token Auth0 diretamente
-            AuthResponse response = buildAuthResponseWithAuth0Token(user, auth0Response.getAccessToken());
-            metricsRecorder.recordOperation("login", "success");
-            metricsRecorder.recordRoleAssignments(user.getRoles(), "login");
-            return response;
+            return completeLogin(auth0Response);
 
         } catch (BusinessException e) {
             metricsRecorder.recordOperation("login", "failure");
@@ -91,6 +78,62 @@ public AuthResponse login(LoginRequest request) {
         }
     }
 
+    /**
+     * Versão assíncrona do login: a thread da requisição é liberada enquanto o Auth0 responde;
+     * a sincronização com o banco local roda em uma transação ao final da chamada, no pool
+     * limitado do {@link AuthDbExecutor}
+     */
+    public CompletableFuture<AuthResponse> loginAsync(LoginRequest request) {
+        log.info("Tentativa de login para email: {}", request.getEmail());
+
+        return auth0AsyncClient.login(request.getEmail(), request.getPassword())
+            .thenCompose(authDbExecutor.stage(auth0Response ->
+                transactionTemplate.execute(status -> completeLogin(auth0Response))))
+            .handle((response, error) -> {
+                if (error == null) {
+                    return response;
+                }
+                metricsRecorder.recordOperation("login", "failure");
+                Throwable cause = unwrap(error);
+                if (cause instanceof BusinessException businessException) {
+                    throw businessException;
+                }
+                log.error("Erro ao fazer login: {}", cause.getMessage());
+                throw new BusinessException("Falha na autenticação: " + cause.getMessage());
+            });
+    }
+
+    /**
+     * Sincroniza o usuário autenticado no Auth0 com o banco local e monta a resposta
+     */
+    private AuthResponse completeLogin(Auth0ManagementService.Auth0LoginResponse auth0Response) {
+        // 2. Decodificar token para obter informações do usuário
+        DecodedJWT decodedJWT = JWT.decode(auth0Response.getAccessToken());
+        String auth0Id = decodedJWT.getSubject();
+        String email = decodedJWT.getClaim("email").asString();
+        
+        // 3. Buscar ou sincronizar usuário no banco local
+        User user = userRepository.findByAuth0Id(auth0Id)
+            .orElseGet(() -> {
+                // Se não existe, busca por email (pode ser usuário antigo)
+                return userRepository.findByEmailIgnoreCase(email)
+                    .orElseThrow(() -> new BusinessException("Usuário não encontrado no sistema"));
+            });
+        
+        // 4. Atualizar último login
+        user.updateLastLogin();
+        userRepository.save(user);
+        
+        // 5. Publicar evento de login
+        auth0EventProducer.publishUserLogged(user.getId(), user.getEmail(), user.getAuth0Id());
+        
+        // 6. Construir resposta com token Auth0 diretamente
+        AuthResponse response = buildAuthResponseWithAuth0Token(user, auth0Response.getAccessToken());
+        metricsRecorder.recordOperation("login", "success");
+        metricsRecorder.recordRoleAssignments(user.getRoles(), "login");
+        return response;
+    }
+
     /**
      * Registra um novo usuário via Auth0
      */
@@ -98,6 +141,61 @@ public AuthResponse login(LoginRequest request) {
     public AuthResponse register(RegisterRequest request) {
         log.info("Tentativa de registro para email: {}", request.getEmail());
 
+        validateRegistration(request);
+
+        try {
+            User savedUser = registerWithAuth0(request);
+            return completeRegistration(savedUser);
+
+        } catch (BusinessException e) {
+            metricsRecorder.recordOperation("register", "failure");
+            throw e;
+        } catch (Exception e) {
+            metricsRecorder.recordOperation("register", "failure");
+            log.error("Erro ao registrar usuário: {}", e.getMessage(), e);
+            throw new BusinessException("Falha ao registrar usuário: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Versão assíncrona do registro: a thread da requisição é liberada enquanto o usuário é
+     * criado no Auth0; o usuário local é gravado em uma transação ao final da chamada, no pool
+     * limitado do {@link AuthDbExecutor}
+     */
+    public CompletableFuture<AuthResponse> registerAsync(RegisterRequest request) {
+        log.info("Tentativa de registro para email: {}", request.getEmail());
+
+        validateRegistration(request);
+
+        return auth0AsyncClient.createUser(
+                request.getEmail(),
+                request.getPassword(),
+                request.getFirstName(),
+                request.getLastName(),
+                request.getPhone(),
+                request.getDocumentNumber(),
+                request.getRoles().iterator().next() // Pega a primeira role
+            )
+            .thenCompose(authDbExecutor.stage(auth0User -> transactionTemplate.execute(status ->
+                completeRegistration(saveRegisteredUser(request, auth0User)))))
+            .handle((response, error) -> {
+                if (error == null) {
+                    return response;
+                }
+                metricsRecorder.recordOperation("register", "failure");
+                Throwable cause = unwrap(error);
+                if (cause instanceof BusinessException businessException) {
+                    throw businessException;
+                }
+                log.error("Erro ao registrar usuário: {}", cause.getMessage(), cause);
+                throw new BusinessException("Falha ao registrar usuário: " + cause.getMessage());
+            });
+    }
+
+    /**
+     * Validações do registro no banco local (antes de qualquer chamada ao Auth0)
+     */
+    private void validateRegistration(RegisterRequest request) {
         // Valida se as senhas coincidem
         if (!request.isPasswordMatching()) {
             metricsRecorder.recordOperation("register", "failure");
@@ -116,27 +214,26 @@ public AuthResponse register(RegisterRequest request) {
             metricsRecorder.recordOperation("register", "failure");
             throw new BusinessException("CPF já cadastrado no sistema");
         }
+    }
 
-        try {
-            User savedUser = registerWithAuth0(request);
+    /**
+     * Publica o evento do usuário registrado e monta a resposta
+     */
+    private AuthResponse completeRegistration(User savedUser) {
+        userRoleIndex.refreshAfterCommit(savedUser.getId());
 
-            // Publicar evento de usuário criado
-            publishUserCreatedEvent(savedUser);
+        // Publicar evento de usuário criado (enviado após o commit)
+        publishUserCreatedEvent(savedUser);
 
-            // Construir resposta
-            AuthResponse response = buildAuthResponse(savedUser);
-            metricsRecorder.recordOperation("register", "success");
-            metricsRecorder.recordRoleAssignments(savedUser.getRoles(), "registration");
-            return response;
+        // Construir resposta
+        AuthResponse response = buildAuthResponse(savedUser);
+        metricsRecorder.recordOperation("register", "success");
+        metricsRecorder.recordRoleAssignments(savedUser.getRoles(), "registration");
+        return response;
+    }
 
-        } catch (BusinessException e) {
-            metricsRecorder.recordOperation("register", "failure");
-            throw e;
-        } catch (Exception e) {
-            metricsRecorder.recordOperation("register", "failure");
-            log.error("Erro ao registrar usuário: {}", e.getMessage(), e);
-            throw new BusinessException("Falha ao registrar usuário: " + e.getMessage());
-        }
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 
     /**
@@ -231,9 +328,16 @@ private User registerWithAuth0(RegisterRequest request) {
             request.getRoles().iterator().next() // Pega a primeira role
         );
 
-        // 2. Buscar roles do banco local
+        return saveRegisteredUser(request, auth0User);
+    }
+
+    /**
+     * Grava no banco local o usuário criado no Auth0
+     */
+    private User saveRegisteredUser(RegisterRequest request, Auth0ManagementService.Auth0User auth0User) {
+        // 2. Buscar roles (registro em memória)
         Set<Role> roles = request.getRoles().stream()
-            .map(roleName -> roleRepository.findByName(roleName)
+            .map(roleName -> roleRegistry.findByName(roleName)
                 .orElseThrow(() -> new BusinessException("Role não encontrada: " + roleName)))
             .collect(Collectors.toSet());
 
@@ -372,8 +476,8 @@ public AuthResponse createUserInternal(com.distrischool.template.dto.auth.Create
                 userRole
             );
 
-            // Buscar role do banco local
-            Role role = roleRepository.findByName(userRole)
+            // Buscar role (registro em memória)
+            Role role = roleRegistry.findByName(userRole)
                 .orElseThrow(() -> new BusinessException("Role não encontrada: " + userRole));
 
             // Criar usuário no banco local
@@ -393,6 +497,7 @@ public AuthResponse createUserInternal(com.distrischool.template.dto.auth.Create
 
             User savedUser = userRepository.save(user);
             log.info("Usuário criado internamente com sucesso: {}", savedUser.getEmail());
+            userRoleIndex.refreshAfterCommit(savedUser.getId());
 
             // Publicar evento de usuário criado
             auth0EventProducer.publishUserCreated(
@@ -418,6 +523,26 @@ public AuthResponse createUserInternal(com.distrischool.template.dto.auth.Create
         }
     }
 
+    /**
+     * Revoga o token apresentado (logout): o jti é gravado na denylist (Redis) até a expiração
+     * do token e o evento distrischool.auth.token.revoked replica a revogação para os outros pods
+     *
+     * @param token Token JWT do usuário autenticado (Auth0 ou enriquecido)
+     * @param revokedBy Quem solicitou a revogação
+     */
+    public void logout(String token, String revokedBy) {
+        ValidatedToken validated = jwtService.validateAny(token)
+            .orElseThrow(() -> new BusinessException("Token inválido ou expirado"));
+        if (validated.getTokenId() == null) {
+            throw new BusinessException("Token sem jti não pode ser revogado individualmente");
+        }
+
+        tokenDenylist.revokeToken(validated.getTokenId(), validated.getExpiresAt());
+        auth0EventProducer.publishTokenRevoked(validated.getTokenId(), validated.getSubject(), revokedBy);
+        metricsRecorder.recordOperation("logout", "success");
+        log.info("Logout realizado para auth0_id: {}", validated.getSubject());
+    }
+
     /**
      * Obtém informações do usuário autenticado atual
      * Enriquece a resposta com studentId e teacherId obtidos dos serviços correspondentes
@@ -1,12 +1,15 @@
 package com.distrischool.template.service;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.distrischool.template.config.Auth0Config;
 import com.distrischool.template.entity.User;
 import com.distrischool.template.entity.UserRole;
+import com.distrischool.template.security.AuthorityMasks;
+import com.distrischool.template.security.AuthzEpochIndex;
+import com.distrischool.template.security.EnhancedJwtKeyRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,6 +27,9 @@
  * 2. Busca roles do banco de dados usando auth0_id
  * 3. Mapeia roles para permissions
  * 4. Cria um novo token JWT contendo todos os claims do Auth0 + roles e permissions do DB
+ *
+ * No formato compacto (app.jwt.token-format-version=2, padrão) roles e permissions são enviadas
+ * como máscaras de bits ({@link AuthorityMasks}) em vez de arrays de strings.
  */
 @Service
 @RequiredArgsConstructor
@@ -32,13 +38,17 @@ public class EnhancedJwtService {
 
     private final Auth0Config auth0Config;
     private final PermissionService permissionService;
-
-    @Value("${app.jwt.secret:default-secret-key-change-in-production}")
-    private String jwtSecret;
+    private final EnhancedJwtKeyRegistry keyRegistry;
 
     @Value("${app.jwt.expiration-hours:24}")
     private int expirationHours;
 
+    /**
+     * Formato dos claims de roles/permissions: 1 = arrays de strings, 2 = máscaras de bits (ver {@link AuthorityMasks})
+     */
+    @Value("${app.jwt.token-format-version:2}")
+    private int tokenFormatVersion;
+
     /**
      * Gera um token JWT enriquecido com informações do Auth0 + roles/permissions do DB.
      * 
@@ -66,30 +76,29 @@ public String generateEnhancedToken(String auth0Token, User user) {
                 .map(role -> role.getName())
                 .collect(Collectors.toSet());
             
-            List<String> roles = userRoles.stream()
-                .map(UserRole::name)
-                .collect(Collectors.toList());
+            int roleMask = AuthorityMasks.roleMask(userRoles);
             
-            // 4. Mapeia roles para permissions
-            List<String> permissions = permissionService.getPermissionsFromRoles(userRoles);
-            
-            // 5. Extrai scope do token Auth0 (se existir)
+            // 4. Extrai scope do token Auth0 (se existir)
             String scope = decodedAuth0Token.getClaim("scope") != null 
                 ? decodedAuth0Token.getClaim("scope").asString() 
                 : "openid profile email";
             
-            // 6. Cria um novo token JWT com todos os claims
-            Algorithm algorithm = Algorithm.HMAC256(jwtSecret);
+            // 5. Cria um novo token JWT com todos os claims, assinado com a chave ativa (kid no header)
+            EnhancedJwtKeyRegistry.SigningKey signingKey = keyRegistry.getActiveKey();
             
             Instant now = Instant.now();
             Instant expiration = expiresAt != null 
                 ? expiresAt.toInstant() 
                 : now.plusSeconds(expirationHours * 3600); // Usa expiração do Auth0 ou padrão
             
-            return JWT.create()
+            JWTCreator.Builder builder = JWT.create()
+                .withKeyId(signingKey.getKid())
                 .withIssuer(issuer != null ? issuer : String.format("https://%s/", auth0Config.getDomain()))
                 .withAudience(audience)
                 .withSubject(subject) // auth0_id
+                .withJWTId(UUID.randomUUID().toString()) // permite revogar o token individualmente
+                .withClaim("uid", user.getId()) // id interno: autenticação sem consulta ao banco
+                .withClaim(AuthzEpochIndex.CLAIM, user.getAuthzEpoch()) // tokens de épocas anteriores são rejeitados
                 .withIssuedAt(Date.from(issuedAt != null ? issuedAt.toInstant() : now))
                 .withExpiresAt(Date.from(expiration))
                 // Preserva claims do Auth0
@@ -97,11 +106,19 @@ public String generateEnhancedToken(String auth0Token, User user) {
                 .withClaim("name", getClaimValue(decodedAuth0Token.getClaim("name")))
                 .withClaim("nickname", getClaimValue(decodedAuth0Token.getClaim("nickname")))
                 .withClaim("picture", getClaimValue(decodedAuth0Token.getClaim("picture")))
-                .withClaim("scope", scope)
-                // Adiciona roles e permissions do DB
-                .withClaim("roles", roles)
-                .withClaim("permissions", permissions)
-                .sign(algorithm);
+                .withClaim("scope", scope);
+            
+            // 6. Adiciona roles e permissions do DB (mapeadas pelo PermissionService)
+            if (tokenFormatVersion >= AuthorityMasks.FORMAT_VERSION) {
+                builder.withClaim(AuthorityMasks.VERSION_CLAIM, AuthorityMasks.FORMAT_VERSION)
+                    .withClaim(AuthorityMasks.ROLE_MASK_CLAIM, roleMask)
+                    .withClaim(AuthorityMasks.PERMISSION_MASK_CLAIM, permissionService.getPermissionMask(roleMask));
+            } else {
+                builder.withClaim("roles", AuthorityMasks.roleNames(roleMask))
+                    .withClaim("permissions", permissionService.getPermissions(roleMask));
+            }
+            
+            return builder.sign(signingKey.getAlgorithm());
                 
         } catch (Exception e) {
             log.error("Erro ao gerar token enriquecido: {}", e.getMessage(), e);
@@ -1,18 +1,30 @@
 package com.distrischool.template.service;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.distrischool.template.security.Auth0JwtValidator;
+import com.distrischool.template.security.EnhancedJwtValidator;
+import com.distrischool.template.security.TokenTypeResolver;
+import com.distrischool.template.security.TokenValidationCache;
+import com.distrischool.template.security.ValidatedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Serviço JWT que fornece uma interface simplificada para validação e extração de informações de tokens.
  * Usado principalmente pelo serviço gRPC para validação de tokens entre microsserviços.
+ *
+ * Prefira {@link #validate(String)}: o token é verificado uma única vez e todos os claims
+ * são retornados em um {@link ValidatedToken} imutável. Resultados válidos ficam no
+ * {@link TokenValidationCache} até o exp do token, então validações repetidas do mesmo
+ * token custam apenas um hash SHA-256 e uma consulta em memória.
  */
 @Service
 @RequiredArgsConstructor
@@ -20,125 +32,172 @@
 public class JwtService {
 
     private final Auth0JwtValidator auth0JwtValidator;
+    private final EnhancedJwtValidator enhancedJwtValidator;
+    private final TokenValidationCache tokenValidationCache;
+    private final TokenTypeResolver tokenTypeResolver;
 
     /**
-     * Verifica se um token JWT é válido
-     * 
-     * @param token O token JWT a ser validado
-     * @return true se o token é válido, false caso contrário
+     * Valida um token de qualquer tipo suportado (Auth0 ou enriquecido).
+     *
+     * O header é lido uma única vez e o token é enviado diretamente ao validador
+     * correspondente ao seu algoritmo (ver {@link TokenTypeResolver}).
+     *
+     * @param token O token JWT
+     * @return Os claims validados (com o tipo do token), ou vazio se o token for inválido
      */
-    public boolean isTokenValid(String token) {
+    public Optional<ValidatedToken> validateAny(String token) {
+        return tokenValidationCache.get(token, () -> decode(token).flatMap(jwt ->
+            tokenTypeResolver.resolve(jwt)
+                .flatMap(type -> switch (type) {
+                    case AUTH0 -> verifyAuth0(jwt);
+                    case ENHANCED -> verifyEnhanced(jwt);
+                })
+                .or(() -> {
+                    log.debug("Algoritmo de token não suportado: {}", jwt.getAlgorithm());
+                    return Optional.empty();
+                })));
+    }
+
+    /**
+     * Valida um token Auth0 uma única vez e extrai todos os claims
+     *
+     * @param token O token JWT
+     * @return Os claims validados, ou vazio se o token for inválido
+     */
+    public Optional<ValidatedToken> validate(String token) {
+        return tokenValidationCache.get(token, () -> decode(token).flatMap(this::verifyAuth0))
+            .filter(validated -> validated.getTokenType() == ValidatedToken.TokenType.AUTH0);
+    }
+
+    /**
+     * Valida um token enriquecido (EnhancedJwtService) uma única vez e extrai todos os claims
+     *
+     * @param token O token JWT enriquecido
+     * @return Os claims validados, ou vazio se o token for inválido
+     */
+    public Optional<ValidatedToken> validateEnhanced(String token) {
+        return tokenValidationCache.get(token, () -> decode(token).flatMap(this::verifyEnhanced))
+            .filter(validated -> validated.getTokenType() == ValidatedToken.TokenType.ENHANCED);
+    }
+
+    /**
+     * Decodifica o token sem verificar a assinatura
+     */
+    private Optional<DecodedJWT> decode(String token) {
         try {
-            auth0JwtValidator.validateToken(token);
-            return true;
+            return Optional.of(JWT.decode(token));
+        } catch (JWTDecodeException e) {
+            log.debug("Token JWT malformado: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Verificação completa (assinatura RS256 + claims) de um token Auth0, sem cache
+     */
+    private Optional<ValidatedToken> verifyAuth0(DecodedJWT jwt) {
+        try {
+            return Optional.of(toValidatedToken(auth0JwtValidator.validateToken(jwt)));
         } catch (JWTVerificationException e) {
             log.debug("Token JWT inválido: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         } catch (Exception e) {
             log.error("Erro ao validar token JWT", e);
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Verificação completa (assinatura HMAC + claims) de um token enriquecido, sem cache
+     */
+    private Optional<ValidatedToken> verifyEnhanced(DecodedJWT jwt) {
+        try {
+            return Optional.of(toValidatedEnhancedToken(enhancedJwtValidator.validateToken(jwt)));
+        } catch (JWTVerificationException e) {
+            log.debug("Token enriquecido inválido: {}", e.getMessage());
+            return Optional.empty();
+        } catch (Exception e) {
+            log.error("Erro ao validar token enriquecido", e);
+            return Optional.empty();
         }
     }
 
+    /**
+     * Verifica se um token JWT é válido
+     *
+     * @param token O token JWT a ser validado
+     * @return true se o token é válido, false caso contrário
+     */
+    public boolean isTokenValid(String token) {
+        return validate(token).isPresent();
+    }
+
     /**
      * Extrai o ID do usuário do token (Auth0 subject)
-     * 
+     *
      * @param token O token JWT
      * @return O ID do usuário ou null se inválido
      */
     public String extractUserId(String token) {
-        try {
-            DecodedJWT jwt = auth0JwtValidator.validateToken(token);
-            return auth0JwtValidator.getAuth0Id(jwt);
-        } catch (Exception e) {
-            log.debug("Erro ao extrair user ID do token: {}", e.getMessage());
-            return null;
-        }
+        return validate(token).map(ValidatedToken::getSubject).orElse(null);
     }
 
     /**
      * Extrai o email do usuário do token
-     * 
+     *
      * @param token O token JWT
      * @return O email do usuário ou null se inválido
      */
     public String extractEmail(String token) {
-        try {
-            DecodedJWT jwt = auth0JwtValidator.validateToken(token);
-            return auth0JwtValidator.getEmail(jwt);
-        } catch (Exception e) {
-            log.debug("Erro ao extrair email do token: {}", e.getMessage());
-            return null;
-        }
+        return validate(token).map(ValidatedToken::getEmail).orElse(null);
     }
 
     /**
      * Extrai o username do usuário do token
-     * 
+     *
      * @param token O token JWT
      * @return O username (email) do usuário ou null se inválido
      */
     public String extractUsername(String token) {
-        try {
-            DecodedJWT jwt = auth0JwtValidator.validateToken(token);
-            return auth0JwtValidator.getEmail(jwt); // Usando email como username
-        } catch (Exception e) {
-            log.debug("Erro ao extrair username do token: {}", e.getMessage());
-            return null;
-        }
+        return validate(token).map(ValidatedToken::getUsername).orElse(null);
     }
 
     /**
      * Extrai as roles do usuário do token
-     * 
+     *
      * @param token O token JWT
      * @return Lista de roles do usuário ou lista vazia se inválido
      */
     public List<String> extractRoles(String token) {
-        try {
-            DecodedJWT jwt = auth0JwtValidator.validateToken(token);
-            return auth0JwtValidator.getRoles(jwt);
-        } catch (Exception e) {
-            log.debug("Erro ao extrair roles do token: {}", e.getMessage());
-            return List.of();
-        }
+        return validate(token).map(ValidatedToken::getRoles).orElse(List.of());
     }
 
     /**
      * Extrai a data de expiração do token
-     * 
+     *
      * @param token O token JWT
      * @return A data de expiração ou null se inválido
      */
     public Date extractExpiration(String token) {
-        try {
-            DecodedJWT jwt = auth0JwtValidator.validateToken(token);
-            return jwt.getExpiresAt();
-        } catch (Exception e) {
-            log.debug("Erro ao extrair expiração do token: {}", e.getMessage());
-            return null;
-        }
+        return validate(token)
+            .map(ValidatedToken::getExpiresAt)
+            .map(Date::from)
+            .orElse(null);
     }
 
     /**
      * Extrai o nome do usuário do token
-     * 
+     *
      * @param token O token JWT
      * @return O nome do usuário ou null se inválido
      */
     public String extractName(String token) {
-        try {
-            DecodedJWT jwt = auth0JwtValidator.validateToken(token);
-            return auth0JwtValidator.getName(jwt);
-        } catch (Exception e) {
-            log.debug("Erro ao extrair nome do token: {}", e.getMessage());
-            return null;
-        }
+        return validate(token).map(ValidatedToken::getName).orElse(null);
     }
 
     /**
      * Valida um token e retorna o DecodedJWT se válido
-     * 
+     *
      * @param token O token JWT
      * @return O DecodedJWT se válido, null caso contrário
      */
@@ -150,4 +209,43 @@ public DecodedJWT validateAndDecode(String token) {
             return null;
         }
     }
+
+    /**
+     * Extrai os claims de um token Auth0 já verificado
+     */
+    private ValidatedToken toValidatedToken(DecodedJWT jwt) {
+        return ValidatedToken.builder()
+            .tokenType(ValidatedToken.TokenType.AUTH0)
+            .keyId(jwt.getKeyId())
+            .tokenId(jwt.getId())
+            .subject(auth0JwtValidator.getAuth0Id(jwt))
+            .email(auth0JwtValidator.getEmail(jwt))
+            .name(auth0JwtValidator.getName(jwt))
+            .roles(List.copyOf(auth0JwtValidator.getRoles(jwt)))
+            .issuedAt(jwt.getIssuedAtAsInstant())
+            .expiresAt(jwt.getExpiresAtAsInstant())
+            .build();
+    }
+
+    /**
+     * Extrai os claims de um token enriquecido já verificado
+     */
+    private ValidatedToken toValidatedEnhancedToken(DecodedJWT jwt) {
+        return ValidatedToken.builder()
+            .tokenType(ValidatedToken.TokenType.ENHANCED)
+            .keyId(jwt.getKeyId())
+            .tokenId(jwt.getId())
+            .subject(enhancedJwtValidator.getAuth0Id(jwt))
+            .userId(jwt.getClaim("uid").asLong())
+            .email(enhancedJwtValidator.getEmail(jwt))
+            .name(jwt.getClaim("name").asString())
+            .roles(List.copyOf(enhancedJwtValidator.getRoles(jwt)))
+            .permissions(List.copyOf(enhancedJwtValidator.getPermissions(jwt)))
+            .roleMask(enhancedJwtValidator.getRoleMask(jwt))
+            .permissionMask(enhancedJwtValidator.getPermissionMask(jwt))
+            .authzEpoch(enhancedJwtValidator.getAuthzEpoch(jwt))
+            .issuedAt(jwt.getIssuedAtAsInstant())
+            .expiresAt(jwt.getExpiresAtAsInstant())
+            .build();
+    }
 }
@@ -1,8 +1,15 @@
 package com.distrischool.template.service;
 
+import com.distrischool.template.entity.Permission;
 import com.distrischool.template.entity.UserRole;
+import com.distrischool.template.kafka.auth.Auth0EventProducer;
+import com.distrischool.template.repository.PermissionRepository;
+import com.distrischool.template.security.AuthorityMasks;
+import com.distrischool.template.security.PermissionSnapshot;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -10,96 +17,144 @@
 /**
  * Serviço que mapeia roles para permissions.
  * Define quais permissões cada role possui no sistema.
+ *
+ * O modelo vem das tabelas permissions e role_permissions e é compilado em um
+ * {@link PermissionSnapshot} imutável: resolver permissions ou authorities para qualquer
+ * conjunto de roles é apenas uma consulta em array, sem acesso ao banco. O snapshot é
+ * recarregado no startup e quando o modelo muda ({@link #reloadAndBroadcast(String)} publica
+ * o evento que recarrega os outros pods); até a primeira carga vale o modelo padrão.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PermissionService {
 
+    private final PermissionRepository permissionRepository;
+    private final Auth0EventProducer auth0EventProducer;
+
+    private volatile PermissionSnapshot snapshot = PermissionSnapshot.defaults();
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    /**
+     * Recarrega o modelo do banco e publica o novo snapshot de forma atômica.
+     * Em caso de erro o snapshot atual é mantido.
+     *
+     * @return true se o snapshot foi recarregado
+     */
+    public synchronized boolean reload() {
+        try {
+            Map<String, Integer> bitsByName = new HashMap<>();
+            for (Permission permission : permissionRepository.findAllActivePermissions()) {
+                bitsByName.put(permission.getName(), permission.getBit().intValue());
+            }
+            if (bitsByName.isEmpty()) {
+                log.warn("Nenhuma permission cadastrada no banco; mantendo o modelo atual");
+                return false;
+            }
+
+            Map<UserRole, Set<String>> permissionsByRole = new EnumMap<>(UserRole.class);
+            for (PermissionRepository.RolePermissionView view : permissionRepository.findActiveRolePermissions()) {
+                permissionsByRole.computeIfAbsent(view.getRole(), role -> new HashSet<>()).add(view.getPermission());
+            }
+
+            snapshot = PermissionSnapshot.compile(bitsByName, permissionsByRole);
+            log.info("Snapshot de permissions carregado: {} permissions, {} roles com permissions",
+                bitsByName.size(), permissionsByRole.size());
+            return true;
+        } catch (Exception e) {
+            log.error("Erro ao carregar permissions do banco; mantendo o modelo atual: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Recarrega o snapshot local e notifica as outras instâncias (Kafka)
+     */
+    public boolean reloadAndBroadcast(String changedBy) {
+        boolean reloaded = reload();
+        if (reloaded) {
+            auth0EventProducer.publishPermissionsChanged(changedBy);
+        }
+        return reloaded;
+    }
+
+    /**
+     * Snapshot atual (imutável); use quando várias consultas precisam ver o mesmo modelo
+     */
+    public PermissionSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     /**
      * Mapeia roles para suas respectivas permissions.
      * Retorna todas as permissions que o usuário possui baseado em suas roles.
+     *
+     * @return Lista imutável e compartilhada; não deve ser modificada
      */
     public List<String> getPermissionsFromRoles(Set<UserRole> roles) {
-        Set<String> permissions = new HashSet<>();
-        
-        for (UserRole role : roles) {
-            permissions.addAll(getPermissionsForRole(role));
-        }
-        
-        return new ArrayList<>(permissions);
+        return snapshot.getPermissions(AuthorityMasks.roleMask(roles));
     }
 
     /**
-     * Retorna as permissions para uma role específica.
+     * Retorna as permissions para uma combinação de roles (ver {@link AuthorityMasks#roleMask(Collection)})
      */
-    private List<String> getPermissionsForRole(UserRole role) {
-        return switch (role) {
-            case ADMIN -> Arrays.asList(
-                // Teachers
-                "read:teachers",
-                "write:teachers",
-                "delete:teachers",
-                // Students
-                "read:students",
-                "write:students",
-                "delete:students",
-                // Classes/Grades
-                "read:classes",
-                "write:classes",
-                "delete:classes",
-                // Grades
-                "read:grades",
-                "write:grades",
-                "delete:grades",
-                // Attendance
-                "read:attendance",
-                "write:attendance",
-                // Reports
-                "read:reports",
-                "write:reports",
-                // Users
-                "read:users",
-                "write:users",
-                "delete:users"
-            );
-            case TEACHER -> Arrays.asList(
-                // Teachers (own info)
-                "read:teachers",
-                "write:teachers",
-                // Students (classes assigned)
-                "read:students",
-                // Classes/Grades (assigned)
-                "read:classes",
-                "write:classes",
-                // Grades (can grade students)
-                "read:grades",
-                "write:grades",
-                // Attendance (can mark attendance)
-                "read:attendance",
-                "write:attendance"
-            );
-            case STUDENT -> Arrays.asList(
-                // Students (own info)
-                "read:students",
-                // Classes (enrolled)
-                "read:classes",
-                // Grades (own grades)
-                "read:grades",
-                // Attendance (own attendance)
-                "read:attendance"
-            );
-            case PARENT -> Arrays.asList(
-                // Students (children)
-                "read:students",
-                // Classes (children's classes)
-                "read:classes",
-                // Grades (children's grades)
-                "read:grades",
-                // Attendance (children's attendance)
-                "read:attendance"
-            );
-        };
+    public List<String> getPermissions(int roleMask) {
+        return snapshot.getPermissions(roleMask);
+    }
+
+    /**
+     * Retorna a máscara de bits de permissions de uma role
+     */
+    public long getPermissionMask(UserRole role) {
+        return snapshot.getPermissionMask(role);
+    }
+
+    /**
+     * Retorna a máscara de bits de permissions de uma combinação de roles
+     */
+    public long getPermissionMask(int roleMask) {
+        return snapshot.getPermissionMask(roleMask);
+    }
+
+    /**
+     * Converte nomes de permissions em uma máscara (-1 se alguma não existir)
+     */
+    public long getPermissionMask(List<String> permissions) {
+        return snapshot.permissionMask(permissions);
+    }
+
+    /**
+     * Converte uma máscara de permissions (ex: claim pmask) nos nomes das permissions
+     */
+    public List<String> getPermissionNames(long permissionMask) {
+        return snapshot.permissionNames(permissionMask);
     }
-}
 
+    /**
+     * Retorna as authorities (ROLE_* e permissions) de uma combinação de roles.
+     * As instâncias são compartilhadas entre requisições.
+     */
+    public List<GrantedAuthority> getAuthorities(int roleMask) {
+        return snapshot.getAuthorities(roleMask);
+    }
+
+    /**
+     * Retorna as authorities de uma combinação de roles com uma máscara de permissions arbitrária
+     * (ex: token emitido antes de uma mudança nas permissions da role).
+     */
+    public List<GrantedAuthority> getAuthorities(int roleMask, long permissionMask) {
+        return snapshot.getAuthorities(roleMask, permissionMask);
+    }
+
+    /**
+     * Retorna apenas as authorities ROLE_* de uma combinação de roles.
+     * As instâncias são compartilhadas entre requisições.
+     */
+    public List<GrantedAuthority> getRoleAuthorities(int roleMask) {
+        return snapshot.getRoleAuthorities(roleMask);
+    }
+}
@@ -0,0 +1,73 @@
+package com.distrischool.template.service;
+
+import com.distrischool.template.entity.Role;
+import com.distrischool.template.entity.UserRole;
+import com.distrischool.template.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registro em memória das roles (tabela roles, uma linha por {@link UserRole}).
+ *
+ * As roles são carregadas no startup e recarregadas quando o modelo de permissions muda
+ * (PermissionSnapshotRefreshListener) ou quando uma role não está no registro (ex: criada
+ * depois do startup). Cadastros de usuário não consultam a tabela roles.
+ *
+ * As instâncias são compartilhadas entre threads e não devem ser modificadas: servem apenas
+ * como referência para a associação user_roles, que o Hibernate grava pelo ID da role (sem
+ * cascade). Não são usadas referências {@code getReference}: o hashCode/equals da Role
+ * (e o nome, usado na role_mask do usuário) inicializariam o proxy com um SELECT.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<UserRole, Role> rolesByName = Collections.emptyMap();
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    /**
+     * Recarrega as roles do banco e publica o novo registro de forma atômica.
+     * Em caso de erro o registro atual é mantido.
+     *
+     * @return true se o registro foi recarregado
+     */
+    public synchronized boolean reload() {
+        try {
+            Map<UserRole, Role> loaded = new EnumMap<>(UserRole.class);
+            for (Role role : roleRepository.findAll()) {
+                loaded.put(role.getName(), role);
+            }
+            rolesByName = loaded;
+            log.info("Registro de roles carregado: {} roles", loaded.size());
+            return true;
+        } catch (Exception e) {
+            log.error("Erro ao carregar roles do banco; mantendo o registro atual: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Busca uma role pelo nome; se não estiver no registro, recarrega do banco uma vez
+     */
+    public Optional<Role> findByName(UserRole name) {
+        Role role = rolesByName.get(name);
+        if (role == null && reload()) {
+            role = rolesByName.get(name);
+        }
+        return Optional.ofNullable(role);
+    }
+}
@@ -0,0 +1,193 @@
+package com.distrischool.template.service;
+
+import com.auth0.jwt.JWT;
+import com.distrischool.template.dto.auth.TokenExchangeResponse;
+import com.distrischool.template.entity.User;
+import com.distrischool.template.exception.TokenExchangeException;
+import com.distrischool.template.repository.UserRepository;
+import com.distrischool.template.security.AuthzEpochIndex;
+import com.distrischool.template.security.TokenDenylist;
+import com.distrischool.template.security.TokenHashes;
+import com.distrischool.template.security.ValidatedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Troca de tokens no estilo RFC 8693: recebe um access token do Auth0 e emite um token
+ * enriquecido (EnhancedJwtService) com roles, permissions e o id interno do usuário.
+ *
+ * O token emitido fica em cache por token Auth0 (chave = SHA-256) até o exp do token, limitado
+ * por app.jwt.token-exchange.cache.max-ttl. Um token em cache emitido antes de uma mudança de roles
+ * ou desativação do usuário (época de autorização desatualizada, {@link AuthzEpochIndex}) é
+ * descartado e a troca emite um novo token. Um subject_token revogado ({@link TokenDenylist}, ex:
+ * logout) é recusado com invalid_grant, inclusive quando a troca já está em cache.
+ * Com o token enriquecido, o JwtAuthenticationFilter autentica sem nenhum acesso ao banco.
+ */
+@Service
+@Slf4j
+public class TokenExchangeService {
+
+    public static final String GRANT_TYPE = "urn:ietf:params:oauth:grant-type:token-exchange";
+    public static final String ACCESS_TOKEN_TYPE = "urn:ietf:params:oauth:token-type:access_token";
+    public static final String JWT_TOKEN_TYPE = "urn:ietf:params:oauth:token-type:jwt";
+
+    private static final String CACHE_NAME = "token_exchange";
+
+    private final JwtService jwtService;
+    private final UserRepository userRepository;
+    private final EnhancedJwtService enhancedJwtService;
+    private final AuthzEpochIndex authzEpochIndex;
+    private final TokenDenylist tokenDenylist;
+    private final Cache<String, ExchangedToken> cache;
+
+    public TokenExchangeService(
+            JwtService jwtService,
+            UserRepository userRepository,
+            EnhancedJwtService enhancedJwtService,
+            AuthzEpochIndex authzEpochIndex,
+            TokenDenylist tokenDenylist,
+            MeterRegistry meterRegistry,
+            @Value("${app.jwt.token-exchange.cache.max-size:50000}") long maxSize,
+            @Value("${app.jwt.token-exchange.cache.max-ttl:PT10M}") Duration maxTtl
+    ) {
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+        this.enhancedJwtService = enhancedJwtService;
+        this.authzEpochIndex = authzEpochIndex;
+        this.tokenDenylist = tokenDenylist;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new ExchangedTokenExpiry(maxTtl))
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Troca um access token do Auth0 por um token enriquecido
+     *
+     * @param grantType Deve ser urn:ietf:params:oauth:grant-type:token-exchange
+     * @param subjectToken O access token do Auth0
+     * @param subjectTokenType Deve ser access_token ou jwt
+     * @param requestedTokenType Opcional; se informado, deve ser access_token ou jwt
+     * @return O token enriquecido e o tempo restante até a expiração
+     * @throws TokenExchangeException se o request ou o token forem inválidos
+     */
+    public TokenExchangeResponse exchange(String grantType, String subjectToken,
+                                          String subjectTokenType, String requestedTokenType) {
+        if (!GRANT_TYPE.equals(grantType)) {
+            throw new TokenExchangeException(TokenExchangeException.UNSUPPORTED_GRANT_TYPE,
+                "grant_type deve ser " + GRANT_TYPE);
+        }
+        if (subjectToken == null || subjectToken.isBlank()) {
+            throw new TokenExchangeException(TokenExchangeException.INVALID_REQUEST, "subject_token é obrigatório");
+        }
+        if (!isSupportedTokenType(subjectTokenType)) {
+            throw new TokenExchangeException(TokenExchangeException.INVALID_REQUEST,
+                "subject_token_type não suportado: " + subjectTokenType);
+        }
+        if (requestedTokenType != null && !isSupportedTokenType(requestedTokenType)) {
+            throw new TokenExchangeException(TokenExchangeException.INVALID_REQUEST,
+                "requested_token_type não suportado: " + requestedTokenType);
+        }
+
+        String cacheKey = TokenHashes.sha256(subjectToken);
+        ExchangedToken exchanged = cache.get(cacheKey, key -> mint(subjectToken));
+        if (tokenDenylist.isRevoked(exchanged.subjectToken())) {
+            // subject_token revogado depois da troca (ex: logout): a troca em cache não é mais devolvida
+            cache.invalidate(cacheKey);
+            throw revokedSubjectToken();
+        }
+        if (authzEpochIndex.isStale(exchanged.userId(), exchanged.authzEpoch())) {
+            // Roles alteradas ou usuário desativado depois da emissão: o token em cache não é mais aceito
+            log.debug("Token trocado em cache desatualizado (época {}) para o usuário {}",
+                exchanged.authzEpoch(), exchanged.userId());
+            cache.invalidate(cacheKey);
+            exchanged = cache.get(cacheKey, key -> mint(subjectToken));
+        }
+
+        long expiresIn = Math.max(0, Duration.between(Instant.now(), exchanged.expiresAt()).getSeconds());
+        return TokenExchangeResponse.builder()
+            .accessToken(exchanged.token())
+            .issuedTokenType(ACCESS_TOKEN_TYPE)
+            .tokenType("Bearer")
+            .expiresIn(expiresIn)
+            .build();
+    }
+
+    /**
+     * Valida o token Auth0 (com o cache de validação) e emite o token enriquecido
+     */
+    private ExchangedToken mint(String subjectToken) {
+        ValidatedToken validated = jwtService.validate(subjectToken)
+            .orElseThrow(() -> new TokenExchangeException(TokenExchangeException.INVALID_GRANT,
+                "subject_token inválido ou expirado"));
+        if (tokenDenylist.isRevoked(validated)) {
+            throw revokedSubjectToken();
+        }
+
+        User user = userRepository.findByAuth0Id(validated.getSubject())
+            .filter(found -> Boolean.TRUE.equals(found.getActive()))
+            .orElseThrow(() -> new TokenExchangeException(TokenExchangeException.INVALID_GRANT,
+                "Usuário não encontrado ou inativo"));
+
+        String token = enhancedJwtService.generateEnhancedToken(subjectToken, user);
+        log.debug("Token enriquecido emitido por troca de token para auth0_id: {}", validated.getSubject());
+        return new ExchangedToken(token, JWT.decode(token).getExpiresAtAsInstant(), user.getId(), user.getAuthzEpoch(), validated);
+    }
+
+    private static TokenExchangeException revokedSubjectToken() {
+        return new TokenExchangeException(TokenExchangeException.INVALID_GRANT, "subject_token revogado");
+    }
+
+    private static boolean isSupportedTokenType(String tokenType) {
+        return ACCESS_TOKEN_TYPE.equals(tokenType) || JWT_TOKEN_TYPE.equals(tokenType);
+    }
+
+    /**
+     * Token emitido, com o usuário e a época de autorização usados na emissão e o subject_token
+     * validado (verificado na denylist a cada uso da entrada)
+     */
+    private record ExchangedToken(String token, Instant expiresAt, long userId, int authzEpoch,
+                                  ValidatedToken subjectToken) {
+    }
+
+    /**
+     * Expira cada entrada no exp do token emitido, limitado pelo TTL máximo
+     */
+    private static final class ExchangedTokenExpiry implements Expiry<String, ExchangedToken> {
+
+        private final long maxTtlNanos;
+
+        private ExchangedTokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, ExchangedToken value, long currentTime) {
+            long remainingMillis = value.expiresAt().toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, Math.min(TimeUnit.MILLISECONDS.toNanos(remainingMillis), maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ExchangedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, ExchangedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -6,14 +6,19 @@
 import com.distrischool.template.exception.BusinessException;
 import com.distrischool.template.exception.ResourceNotFoundException;
 import com.distrischool.template.kafka.auth.Auth0EventProducer;
-import com.distrischool.template.repository.RoleRepository;
 import com.distrischool.template.repository.UserRepository;
+import com.distrischool.template.security.AuthzEpochIndex;
+import com.distrischool.template.security.PrincipalCache;
+import com.distrischool.template.security.TokenDenylist;
+import com.distrischool.template.security.UserRoleIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Serviço para gerenciamento de usuários.
@@ -25,8 +30,12 @@
 public class UserService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final Auth0EventProducer auth0EventProducer;
+    private final PrincipalCache principalCache;
+    private final TokenDenylist tokenDenylist;
+    private final AuthzEpochIndex authzEpochIndex;
+    private final UserRoleIndex userRoleIndex;
 
 
     /**
@@ -120,10 +129,12 @@ public User syncAuth0User(String auth0Id, String email, String firstName, String
                 if (updated) {
                     user.setUpdatedBy("AUTH0_SYNC");
                     userRepository.save(user);
+                    principalCache.evict(auth0Id);
                     log.info("Usuário Auth0 atualizado: {}", email);
                     
                     // Publica evento de usuário atualizado
-                    auth0EventProducer.publishUserUpdated(user.getId(), email, auth0Id, firstName, lastName);
+                    auth0EventProducer.publishUserUpdated(user.getId(), email, auth0Id, firstName, lastName,
+                        user.getAuthzEpoch());
                 }
                 
                 return user;
@@ -139,13 +150,14 @@ public User syncAuth0User(String auth0Id, String email, String firstName, String
                     .build();
                 
                 // Adiciona role padrão (STUDENT por exemplo, ou baseado em regras)
-                roleRepository.findByName(UserRole.STUDENT)
+                roleRegistry.findByName(UserRole.STUDENT)
                     .ifPresent(newUser::addRole);
                 
                 newUser.setCreatedBy("AUTH0_SYNC");
                 newUser.setUpdatedBy("AUTH0_SYNC");
                 
                 User saved = userRepository.save(newUser);
+                userRoleIndex.refreshAfterCommit(saved.getId());
                 log.info("Novo usuário criado a partir do Auth0: {}", email);
                 
                 // Publica evento de usuário criado
@@ -166,11 +178,18 @@ public void linkAuth0Account(Long userId, String auth0Id) {
             throw new BusinessException("Auth0 ID já vinculado a outro usuário");
         }
 
+        String previousAuth0Id = user.getAuth0Id();
         user.setAuth0Id(auth0Id);
         user.setUpdatedBy("SYSTEM");
         userRepository.save(user);
+        principalCache.evict(previousAuth0Id);
+        principalCache.evict(auth0Id);
         
         log.info("Usuário {} vinculado ao Auth0 com ID: {}", user.getEmail(), auth0Id);
+        
+        // Publica evento de usuário atualizado (invalida o cache de principals nos outros pods)
+        auth0EventProducer.publishUserUpdated(userId, user.getEmail(), auth0Id, user.getFirstName(), user.getLastName(),
+            user.getAuthzEpoch());
     }
 
     /**
@@ -181,11 +200,18 @@ public void deactivateUser(Long userId, String deletedBy) {
         User user = findById(userId);
         user.setActive(false);
         user.markAsDeleted(deletedBy);
+        int authzEpoch = user.incrementAuthzEpoch();
         userRepository.save(user);
+        principalCache.evict(user.getAuth0Id());
+        userRoleIndex.refreshAfterCommit(userId);
+        authzEpochIndex.updateAfterCommit(userId, authzEpoch);
+        // Tokens já emitidos deixam de ser aceitos após o commit (os outros pods recebem o evento abaixo)
+        tokenDenylist.revokeSubjectAfterCommit(user.getAuth0Id());
         log.info("Usuário desativado: {}", user.getEmail());
         
         // Publica evento de usuário desativado
-        auth0EventProducer.publishUserDeactivated(userId, user.getEmail(), user.getAuth0Id(), "Deactivated by: " + deletedBy);
+        auth0EventProducer.publishUserDeactivated(userId, user.getEmail(), user.getAuth0Id(), "Deactivated by: " + deletedBy,
+            authzEpoch);
     }
 
     /**
@@ -198,7 +224,56 @@ public void reactivateUser(Long userId) {
         user.restore();
         user.setUpdatedBy("SYSTEM");
         userRepository.save(user);
+        principalCache.evict(user.getAuth0Id());
+        userRoleIndex.refreshAfterCommit(userId);
         log.info("Usuário reativado: {}", user.getEmail());
+        
+        // Publica evento de usuário atualizado (invalida o cache de principals nos outros pods)
+        auth0EventProducer.publishUserUpdated(userId, user.getEmail(), user.getAuth0Id(), user.getFirstName(), user.getLastName(),
+            user.getAuthzEpoch());
+    }
+
+    /**
+     * Substitui as roles do usuário.
+     * Incrementa a época de autorização: tokens enriquecidos emitidos com as roles anteriores
+     * deixam de ser aceitos em todos os pods.
+     */
+    @Transactional
+    public User updateRoles(Long userId, Set<UserRole> roleNames, String updatedBy) {
+        if (roleNames == null || roleNames.isEmpty()) {
+            throw new BusinessException("O usuário deve ter ao menos uma role");
+        }
+        User user = findById(userId);
+        
+        Set<Role> roles = roleNames.stream()
+            .map(roleName -> roleRegistry.findByName(roleName)
+                .orElseThrow(() -> new BusinessException("Role não encontrada: " + roleName)))
+            .collect(Collectors.toSet());
+        
+        for (Role role : Set.copyOf(user.getRoles())) {
+            if (!roleNames.contains(role.getName())) {
+                user.removeRole(role);
+            }
+        }
+        for (Role role : roles) {
+            if (!user.hasRole(role.getName())) {
+                user.addRole(role);
+            }
+        }
+        
+        int authzEpoch = user.incrementAuthzEpoch();
+        user.setUpdatedBy(updatedBy);
+        User savedUser = userRepository.save(user);
+        principalCache.evict(user.getAuth0Id());
+        userRoleIndex.refreshAfterCommit(userId);
+        authzEpochIndex.updateAfterCommit(userId, authzEpoch);
+        log.info("Roles do usuário {} atualizadas: {}", user.getEmail(), roleNames);
+        
+        // Publica evento de usuário atualizado (nova época e cache de principals nos outros pods)
+        auth0EventProducer.publishUserUpdated(userId, user.getEmail(), user.getAuth0Id(), user.getFirstName(), user.getLastName(),
+            authzEpoch);
+        
+        return savedUser;
     }
 }
 
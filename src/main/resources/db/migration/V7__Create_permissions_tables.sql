@@ -0,0 +1,91 @@
+-- =====================================================
+-- DistriSchool - Sistema de Gestão Escolar Distribuído
+-- Migration: Criação das tabelas de Permissions e Role_Permissions
+-- Versão: V7
+-- Data: 2026-10-17
+-- =====================================================
+
+-- Criação da tabela de permissions (idempotente)
+CREATE TABLE IF NOT EXISTS permissions (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    bit SMALLINT NOT NULL UNIQUE CHECK (bit BETWEEN 0 AND 62),
+    description VARCHAR(500),
+    active BOOLEAN NOT NULL DEFAULT true,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    deleted_at TIMESTAMP,
+    deleted_by VARCHAR(255)
+);
+
+-- Comentários na tabela
+COMMENT ON TABLE permissions IS 'Tabela de permissões do sistema DistriSchool';
+COMMENT ON COLUMN permissions.id IS 'Identificador único da permission';
+COMMENT ON COLUMN permissions.name IS 'Nome da permission (ex: read:students)';
+COMMENT ON COLUMN permissions.bit IS 'Bit da permission na máscara dos tokens enriquecidos (nunca reutilizar)';
+COMMENT ON COLUMN permissions.description IS 'Descrição da permission';
+COMMENT ON COLUMN permissions.active IS 'Indica se a permission está ativa';
+
+-- Criação da tabela de relacionamento entre roles e permissions
+CREATE TABLE IF NOT EXISTS role_permissions (
+    role_id BIGINT NOT NULL,
+    permission_id BIGINT NOT NULL,
+    PRIMARY KEY (role_id, permission_id),
+    CONSTRAINT fk_role_permissions_role FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE,
+    CONSTRAINT fk_role_permissions_permission FOREIGN KEY (permission_id) REFERENCES permissions(id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE role_permissions IS 'Tabela de relacionamento entre roles e permissions (N:N)';
+COMMENT ON COLUMN role_permissions.role_id IS 'Referência ao ID da role';
+COMMENT ON COLUMN role_permissions.permission_id IS 'Referência ao ID da permission';
+
+CREATE INDEX IF NOT EXISTS idx_role_permissions_permission_id ON role_permissions(permission_id);
+
+-- Permissions padrão (bits iguais aos da tabela AuthorityMasks.PERMISSIONS)
+INSERT INTO permissions (name, bit, description, created_by) VALUES
+    ('read:teachers', 0, 'Consultar professores', 'SYSTEM'),
+    ('write:teachers', 1, 'Cadastrar e alterar professores', 'SYSTEM'),
+    ('delete:teachers', 2, 'Excluir professores', 'SYSTEM'),
+    ('read:students', 3, 'Consultar alunos', 'SYSTEM'),
+    ('write:students', 4, 'Cadastrar e alterar alunos', 'SYSTEM'),
+    ('delete:students', 5, 'Excluir alunos', 'SYSTEM'),
+    ('read:classes', 6, 'Consultar turmas', 'SYSTEM'),
+    ('write:classes', 7, 'Cadastrar e alterar turmas', 'SYSTEM'),
+    ('delete:classes', 8, 'Excluir turmas', 'SYSTEM'),
+    ('read:grades', 9, 'Consultar notas', 'SYSTEM'),
+    ('write:grades', 10, 'Lançar e alterar notas', 'SYSTEM'),
+    ('delete:grades', 11, 'Excluir notas', 'SYSTEM'),
+    ('read:attendance', 12, 'Consultar frequência', 'SYSTEM'),
+    ('write:attendance', 13, 'Registrar frequência', 'SYSTEM'),
+    ('read:reports', 14, 'Consultar relatórios', 'SYSTEM'),
+    ('write:reports', 15, 'Gerar relatórios', 'SYSTEM'),
+    ('read:users', 16, 'Consultar usuários', 'SYSTEM'),
+    ('write:users', 17, 'Cadastrar e alterar usuários', 'SYSTEM'),
+    ('delete:users', 18, 'Excluir usuários', 'SYSTEM')
+ON CONFLICT (name) DO NOTHING;
+
+-- ADMIN: todas as permissions
+INSERT INTO role_permissions (role_id, permission_id)
+SELECT r.id, p.id
+FROM roles r, permissions p
+WHERE r.name = 'ADMIN'
+ON CONFLICT (role_id, permission_id) DO NOTHING;
+
+-- TEACHER
+INSERT INTO role_permissions (role_id, permission_id)
+SELECT r.id, p.id
+FROM roles r, permissions p
+WHERE r.name = 'TEACHER'
+  AND p.name IN ('read:teachers', 'write:teachers', 'read:students', 'read:classes', 'write:classes',
+                 'read:grades', 'write:grades', 'read:attendance', 'write:attendance')
+ON CONFLICT (role_id, permission_id) DO NOTHING;
+
+-- STUDENT e PARENT
+INSERT INTO role_permissions (role_id, permission_id)
+SELECT r.id, p.id
+FROM roles r, permissions p
+WHERE r.name IN ('STUDENT', 'PARENT')
+  AND p.name IN ('read:students', 'read:classes', 'read:grades', 'read:attendance')
+ON CONFLICT (role_id, permission_id) DO NOTHING;
@@ -0,0 +1,31 @@
+-- =====================================================
+-- DistriSchool - Sistema de Gestão Escolar Distribuído
+-- Migration: Coluna role_mask (roles desnormalizadas) na tabela users
+-- Versão: V8
+-- Data: 2026-10-17
+-- =====================================================
+
+-- Um bit por role, na ordem do enum UserRole (mesmos bits da claim rmask dos tokens)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS role_mask INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill a partir de user_roles
+UPDATE users u
+SET role_mask = COALESCE((
+    SELECT bit_or(
+        CASE r.name
+            WHEN 'ADMIN' THEN 1
+            WHEN 'TEACHER' THEN 2
+            WHEN 'STUDENT' THEN 4
+            WHEN 'PARENT' THEN 8
+            ELSE 0
+        END)
+    FROM user_roles ur
+    JOIN roles r ON r.id = ur.role_id
+    WHERE ur.user_id = u.id
+), 0);
+
+-- Filtros e contagens por role (role_mask IN (máscaras que contêm a role)) sobre usuários ativos
+CREATE INDEX IF NOT EXISTS idx_user_active_role_mask ON users(role_mask)
+    WHERE active = true AND deleted_at IS NULL;
+
+COMMENT ON COLUMN users.role_mask IS 'Máscara de bits das roles do usuário (ADMIN=1, TEACHER=2, STUDENT=4, PARENT=8), mantida junto com user_roles';
@@ -0,0 +1,15 @@
+-- =====================================================
+-- DistriSchool - Sistema de Gestão Escolar Distribuído
+-- Migration: Coluna authz_epoch (época de autorização) na tabela users
+-- Versão: V9
+-- Data: 2026-10-17
+-- =====================================================
+
+-- Incrementada a cada mudança de roles ou desativação; tokens enriquecidos com época menor são rejeitados
+ALTER TABLE users ADD COLUMN IF NOT EXISTS authz_epoch INTEGER NOT NULL DEFAULT 0;
+
+-- Carga do índice em memória (apenas usuários cuja época já foi incrementada)
+CREATE INDEX IF NOT EXISTS idx_user_authz_epoch ON users(id, authz_epoch)
+    WHERE authz_epoch > 0;
+
+COMMENT ON COLUMN users.authz_epoch IS 'Época de autorização do usuário (claim aep dos tokens enriquecidos); tokens com época menor são considerados desatualizados';
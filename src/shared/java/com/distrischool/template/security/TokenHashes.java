@@ -0,0 +1,35 @@
+package com.distrischool.template.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * SHA-256 (Base64 URL, sem padding) usado como chave dos caches de validação de tokens e como
+ * fingerprint de chaves de assinatura.
+ *
+ * Compartilhado com o auth-client (src/shared/java, incluído nos dois builds, assim como o
+ * .proto), então não depende de Spring nem de outras classes do serviço.
+ */
+public final class TokenHashes {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    });
+
+    private TokenHashes() {
+    }
+
+    /**
+     * SHA-256 do valor; o valor original (token, segredo) nunca é armazenado
+     */
+    public static String sha256(String value) {
+        byte[] digest = SHA256.get().digest(value.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+}
@@ -0,0 +1,122 @@
+package com.distrischool.template.benchmark;
+
+import com.distrischool.template.entity.UserRole;
+import com.distrischool.template.security.AuthorityMasks;
+import com.distrischool.template.security.PermissionSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark da resolução de permissions/authorities por conjunto de roles.
+ *
+ * Compara a implementação anterior (switch + HashSet + ArrayList por chamada e uma nova
+ * SimpleGrantedAuthority por permission no filtro) com o snapshot pré-calculado usado pelo PermissionService.
+ *
+ * Executar com: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.distrischool.template.benchmark.PermissionServiceBenchmark
+ * (ou pela IDE, executando o método main)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionServiceBenchmark {
+
+    @Param({"STUDENT", "TEACHER", "ADMIN,TEACHER"})
+    private String roleSet;
+
+    private PermissionSnapshot snapshot;
+    private Set<UserRole> roles;
+    private List<String> roleNames;
+
+    @Setup
+    public void setup() {
+        snapshot = PermissionSnapshot.defaults();
+        roles = Arrays.stream(roleSet.split(","))
+            .map(UserRole::valueOf)
+            .collect(Collectors.toSet());
+        roleNames = List.copyOf(Arrays.asList(roleSet.split(",")));
+    }
+
+    @Benchmark
+    public List<String> permissionsBaseline() {
+        return LegacyPermissions.getPermissionsFromRoles(roles);
+    }
+
+    @Benchmark
+    public List<String> permissionsPrecomputed() {
+        return snapshot.getPermissions(AuthorityMasks.roleMask(roles));
+    }
+
+    @Benchmark
+    public void authoritiesBaseline(Blackhole blackhole) {
+        List<String> permissions = LegacyPermissions.getPermissionsFromRoles(roles);
+        List<SimpleGrantedAuthority> authorities = roleNames.stream()
+            .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            .collect(Collectors.toList());
+        permissions.forEach(permission -> authorities.add(new SimpleGrantedAuthority(permission)));
+        blackhole.consume(authorities);
+    }
+
+    @Benchmark
+    public void authoritiesPrecomputed(Blackhole blackhole) {
+        blackhole.consume(snapshot.getAuthorities(AuthorityMasks.roleMaskFromNames(roleNames)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(PermissionServiceBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Cópia da implementação anterior do PermissionService, mantida como referência
+     */
+    static final class LegacyPermissions {
+
+        static List<String> getPermissionsFromRoles(Set<UserRole> roles) {
+            Set<String> permissions = new HashSet<>();
+            for (UserRole role : roles) {
+                permissions.addAll(getPermissionsForRole(role));
+            }
+            return new ArrayList<>(permissions);
+        }
+
+        private static List<String> getPermissionsForRole(UserRole role) {
+            return switch (role) {
+                case ADMIN -> Arrays.asList(
+                    "read:teachers", "write:teachers", "delete:teachers",
+                    "read:students", "write:students", "delete:students",
+                    "read:classes", "write:classes", "delete:classes",
+                    "read:grades", "write:grades", "delete:grades",
+                    "read:attendance", "write:attendance",
+                    "read:reports", "write:reports",
+                    "read:users", "write:users", "delete:users"
+                );
+                case TEACHER -> Arrays.asList(
+                    "read:teachers", "write:teachers",
+                    "read:students",
+                    "read:classes", "write:classes",
+                    "read:grades", "write:grades",
+                    "read:attendance", "write:attendance"
+                );
+                case STUDENT, PARENT -> Arrays.asList(
+                    "read:students", "read:classes", "read:grades", "read:attendance"
+                );
+            };
+        }
+    }
+}
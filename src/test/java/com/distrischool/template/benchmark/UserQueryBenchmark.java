@@ -0,0 +1,189 @@
+package com.distrischool.template.benchmark;
+
+import com.distrischool.template.entity.User;
+import com.distrischool.template.entity.UserRole;
+import com.distrischool.template.repository.UserRepository;
+import com.distrischool.template.security.AuthorityMasks;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark das consultas usadas pelos RPCs GetUserById, HasRole e GetUserRoles.
+ *
+ * Compara o carregamento da entidade User (com as roles EAGER) com as projeções do UserRepository
+ * (coluna role_mask e projeção plana). Requer um PostgreSQL: usa a mesma
+ * configuração de datasource da aplicação (SPRING_DATASOURCE_URL/USERNAME/PASSWORD), aplica as
+ * migrações e semeia {@code users} usuários de benchmark (email benchmark-N@distrischool.test),
+ * removidos ao final da execução (e também os deixados por uma execução interrompida).
+ * Kafka, Redis e o servidor gRPC não são iniciados.
+ *
+ * Executar com: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.distrischool.template.benchmark.UserQueryBenchmark
+ * (ou pela IDE, executando o método main)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserQueryBenchmark {
+
+    private static final String EMAIL_PREFIX = "benchmark-";
+    private static final String EMAIL_DOMAIN = "@distrischool.test";
+
+    @Param({"10000"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private long[] userIds;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(BenchmarkConfig.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "grpc.server.port=-1",
+                "grpc.server.in-process-name=user-query-benchmark",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN")
+            .run();
+        userRepository = context.getBean(UserRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        try {
+            cleanUp(context.getBean(JdbcTemplate.class));
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Boolean hasRoleEntity() {
+        return userRepository.findById(randomUserId())
+            .map(user -> user.getRoles().stream().anyMatch(role -> role.getName() == UserRole.TEACHER))
+            .orElse(false);
+    }
+
+    @Benchmark
+    public boolean hasRoleProjection() {
+        return userRepository.findRoleMaskById(randomUserId())
+            .map(roleMask -> (roleMask & AuthorityMasks.roleBit(UserRole.TEACHER)) != 0)
+            .orElse(false);
+    }
+
+    @Benchmark
+    public List<String> getUserRolesEntity() {
+        return userRepository.findById(randomUserId())
+            .map(user -> user.getRoles().stream()
+                .map(role -> role.getName().name())
+                .collect(Collectors.toList()))
+            .orElse(List.of());
+    }
+
+    @Benchmark
+    public List<String> getUserRolesProjection() {
+        return userRepository.findRoleMaskById(randomUserId())
+            .map(AuthorityMasks::roleNames)
+            .orElse(List.of());
+    }
+
+    @Benchmark
+    public Optional<User> getUserByIdEntity() {
+        return userRepository.findById(randomUserId());
+    }
+
+    @Benchmark
+    public Optional<UserRepository.UserSummaryView> getUserByIdProjection() {
+        return userRepository.findSummaryById(randomUserId());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(UserQueryBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build();
+        new Runner(options).run();
+    }
+
+    private long randomUserId() {
+        return userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+    }
+
+    /**
+     * Semeia os usuários de benchmark (STUDENT; um em cada quatro também TEACHER)
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update(
+            "INSERT INTO users (email, first_name, last_name, active, email_verified) " +
+            "SELECT '" + EMAIL_PREFIX + "' || n || '" + EMAIL_DOMAIN + "', 'Benchmark', 'User ' || n, true, true " +
+            "FROM generate_series(1, ?) AS n " +
+            "ON CONFLICT (email) DO NOTHING", users);
+        jdbcTemplate.update(
+            "INSERT INTO user_roles (user_id, role_id) " +
+            "SELECT u.id, r.id FROM users u JOIN roles r ON r.name = 'STUDENT' " +
+            "WHERE u.email LIKE '" + EMAIL_PREFIX + "%" + EMAIL_DOMAIN + "' " +
+            "ON CONFLICT DO NOTHING");
+        jdbcTemplate.update(
+            "INSERT INTO user_roles (user_id, role_id) " +
+            "SELECT u.id, r.id FROM users u JOIN roles r ON r.name = 'TEACHER' " +
+            "WHERE u.email LIKE '" + EMAIL_PREFIX + "%" + EMAIL_DOMAIN + "' AND u.id % 4 = 0 " +
+            "ON CONFLICT DO NOTHING");
+        jdbcTemplate.update(
+            "UPDATE users SET role_mask = CASE WHEN id % 4 = 0 THEN ? ELSE ? END " +
+            "WHERE email LIKE '" + EMAIL_PREFIX + "%" + EMAIL_DOMAIN + "'",
+            AuthorityMasks.roleBit(UserRole.STUDENT) | AuthorityMasks.roleBit(UserRole.TEACHER),
+            AuthorityMasks.roleBit(UserRole.STUDENT));
+        userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%" + EMAIL_DOMAIN + "' ORDER BY id LIMIT ?",
+                Long.class, users)
+            .stream()
+            .mapToLong(Long::longValue)
+            .toArray();
+    }
+
+    /**
+     * Remove os usuários de benchmark (as linhas de user_roles são removidas em cascata)
+     */
+    private void cleanUp(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%" + EMAIL_DOMAIN + "'");
+    }
+
+    /**
+     * Contexto mínimo: datasource, Flyway e JPA (entidades e repositórios da aplicação)
+     */
+    @Configuration
+    @EnableAutoConfiguration(exclude = {
+        KafkaAutoConfiguration.class,
+        RedisAutoConfiguration.class,
+        RedisRepositoriesAutoConfiguration.class
+    })
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    static class BenchmarkConfig {
+    }
+}
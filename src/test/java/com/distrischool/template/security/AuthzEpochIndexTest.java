@@ -0,0 +1,203 @@
+package com.distrischool.template.security;
+
+import com.distrischool.template.repository.UserRepository;
+import com.distrischool.template.security.AuthzEpochIndex.EpochTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthzEpochIndexTest {
+
+    @Test
+    void emptyTableReturnsZero() {
+        assertEquals(0, EpochTable.EMPTY.size());
+        assertEquals(0, EpochTable.EMPTY.get(1L));
+        assertEquals(0, EpochTable.EMPTY.get(Long.MAX_VALUE));
+    }
+
+    @Test
+    void ofLoadsAllEntriesAndKeepsLastDuplicate() {
+        EpochTable table = EpochTable.of(new long[] {1L, 2L, 3L, 2L}, new int[] {1, 2, 3, 7});
+
+        assertEquals(3, table.size());
+        assertEquals(1, table.get(1L));
+        assertEquals(7, table.get(2L));
+        assertEquals(3, table.get(3L));
+        assertEquals(0, table.get(4L));
+    }
+
+    @Test
+    void largeTableKeepsAllEntries() {
+        long[] userIds = new long[1000];
+        int[] epochs = new int[1000];
+        for (int i = 0; i < 1000; i++) {
+            userIds[i] = i + 1;
+            epochs[i] = i + 1;
+        }
+
+        EpochTable table = EpochTable.of(userIds, epochs);
+
+        assertEquals(1000, table.size());
+        for (long userId = 1; userId <= 1000; userId++) {
+            assertEquals((int) userId, table.get(userId));
+        }
+        assertEquals(0, table.get(1001L));
+    }
+
+    @Test
+    void rebuildFoldsRecentUpdatesIncludedInTheLoad() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findIncrementedAuthzEpochs()).thenReturn(List.of(view(1L, 2), view(2L, 1)));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthzEpochIndex index = new AuthzEpochIndex(userRepository, meterRegistry, Duration.ofMinutes(5));
+
+        index.update(1L, 2);
+        index.update(2L, 3); // ainda não visível na leitura do banco
+        index.rebuild();
+
+        assertEquals(2, index.getEpoch(1L));
+        assertEquals(3, index.getEpoch(2L));
+
+        // Na carga seguinte a época 3 já está no banco e o mapa de atualizações recentes fica vazio
+        when(userRepository.findIncrementedAuthzEpochs()).thenReturn(List.of(view(1L, 2), view(2L, 3)));
+        index.rebuild();
+        index.update(2L, 3); // já incluída na tabela: ignorada
+
+        assertEquals(3, index.getEpoch(2L));
+        assertTrue(index.isStale(2L, 2));
+        assertEquals(0.0, meterRegistry.get("auth.authz_epoch_index.pending_updates").gauge().value());
+    }
+
+    @Test
+    void probingWrapsAroundEndOfTable() {
+        // Três entradas usam uma tabela de 8 posições; todas colidem na última posição
+        int capacity = EpochTable.capacityFor(3);
+        int lastSlot = capacity - 1;
+        long[] userIds = userIdsInSlot(lastSlot, capacity - 1, 4);
+
+        EpochTable table = EpochTable.of(
+            new long[] {userIds[0], userIds[1], userIds[2]}, new int[] {1, 2, 3});
+
+        assertEquals(8, capacity);
+        assertEquals(1, table.get(userIds[0]));
+        assertEquals(2, table.get(userIds[1]));
+        assertEquals(3, table.get(userIds[2]));
+        // Chave ausente no mesmo slot: a sondagem passa pelo início da tabela até uma posição vazia
+        assertEquals(0, table.get(userIds[3]));
+    }
+
+    @Test
+    void capacityKeepsLoadFactorAtMostHalf() {
+        assertEquals(2, EpochTable.capacityFor(0));
+        assertEquals(2, EpochTable.capacityFor(1));
+        assertEquals(4, EpochTable.capacityFor(2));
+        assertEquals(8, EpochTable.capacityFor(3));
+        assertEquals(8, EpochTable.capacityFor(4));
+        assertEquals(16, EpochTable.capacityFor(5));
+        for (int entries = 1; entries <= 4096; entries++) {
+            int capacity = EpochTable.capacityFor(entries);
+            assertEquals(1, Integer.bitCount(capacity));
+            assertTrue(capacity >= entries * 2);
+        }
+    }
+
+    @Test
+    void staleOnlyBelowCurrentEpoch() {
+        AuthzEpochIndex index = new AuthzEpochIndex(null, new SimpleMeterRegistry(), Duration.ofMinutes(5));
+
+        assertFalse(index.isStale(1L, 0));
+
+        index.update(1L, 2);
+        index.update(1L, 1); // épocas menores são ignoradas
+        index.update(null, 3);
+        index.update(0L, 3);
+
+        assertEquals(2, index.getEpoch(1L));
+        assertTrue(index.isStale(1L, 1));
+        assertFalse(index.isStale(1L, 2));
+        assertFalse(index.isStale(2L, 0));
+    }
+
+    @Test
+    void updateAfterCommitIsDiscardedOnRollback() {
+        AuthzEpochIndex index = new AuthzEpochIndex(null, new SimpleMeterRegistry(), Duration.ofMinutes(5));
+        index.update(1L, 1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            index.updateAfterCommit(1L, 2);
+            assertEquals(1, index.getEpoch(1L));
+            status.setRollbackOnly();
+        });
+        assertEquals(1, index.getEpoch(1L));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            index.updateAfterCommit(1L, 2);
+            assertEquals(1, index.getEpoch(1L));
+        });
+        assertEquals(2, index.getEpoch(1L));
+    }
+
+    private static UserRepository.UserAuthzEpochView view(long userId, int authzEpoch) {
+        return new UserRepository.UserAuthzEpochView() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Integer getAuthzEpoch() {
+                return authzEpoch;
+            }
+        };
+    }
+
+    /**
+     * Primeiros userIds cuja posição inicial é o slot informado
+     */
+    private static long[] userIdsInSlot(int slot, int mask, int count) {
+        long[] userIds = new long[count];
+        int found = 0;
+        for (long userId = 1; found < count; userId++) {
+            if (EpochTable.slot(userId, mask) == slot) {
+                userIds[found++] = userId;
+            }
+        }
+        return userIds;
+    }
+
+    /**
+     * Transações sem recurso: apenas dispara as sincronizações de commit/rollback
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
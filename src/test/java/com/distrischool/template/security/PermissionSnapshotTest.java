@@ -0,0 +1,45 @@
+package com.distrischool.template.security;
+
+import com.distrischool.template.entity.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PermissionSnapshotTest {
+
+    private final PermissionSnapshot snapshot = PermissionSnapshot.compile(
+        Map.of("read:users", 0, "write:users", 1, "delete:users", 5),
+        Map.of(UserRole.ADMIN, List.of("read:users", "write:users", "delete:users"),
+            UserRole.STUDENT, List.of("read:users")));
+
+    @Test
+    void roleCombinationMasksReturnSharedLists() {
+        int roleMask = AuthorityMasks.roleBit(UserRole.ADMIN);
+        long permissionMask = snapshot.getPermissionMask(roleMask);
+
+        assertSame(snapshot.getPermissions(roleMask), snapshot.permissionNames(permissionMask));
+    }
+
+    @Test
+    void otherMasksAreDecodedWithoutBeingRetained() {
+        long permissionMask = (1L << 1) | (1L << 5);
+
+        List<String> names = snapshot.permissionNames(permissionMask);
+
+        assertEquals(List.of("write:users", "delete:users"), names);
+        assertNotSame(names, snapshot.permissionNames(permissionMask));
+    }
+
+    @Test
+    void unknownBitsAreIgnored() {
+        long permissionMask = 1L | (1L << 2) | (1L << PermissionSnapshot.MAX_BIT) | Long.MIN_VALUE;
+
+        assertEquals(List.of("read:users"), snapshot.permissionNames(permissionMask));
+        assertEquals(List.of(), snapshot.permissionNames(Long.MIN_VALUE | (1L << 2)));
+    }
+}
@@ -0,0 +1,114 @@
+package com.distrischool.template.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.distrischool.template.dto.auth.TokenExchangeResponse;
+import com.distrischool.template.entity.User;
+import com.distrischool.template.exception.TokenExchangeException;
+import com.distrischool.template.kafka.auth.Auth0EventProducer;
+import com.distrischool.template.metrics.AuthMetricsRecorder;
+import com.distrischool.template.repository.UserRepository;
+import com.distrischool.template.security.AuthzEpochIndex;
+import com.distrischool.template.security.TokenDenylist;
+import com.distrischool.template.security.ValidatedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenExchangeServiceTest {
+
+    private static final String SUBJECT_TOKEN = "auth0-access-token";
+    private static final String AUTH0_ID = "auth0|123";
+    private static final String TOKEN_ID = "jti-1";
+
+    private final Set<String> redisKeys = ConcurrentHashMap.newKeySet();
+
+    private JwtService jwtService;
+    private TokenExchangeService tokenExchangeService;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        doAnswer(invocation -> redisKeys.add(invocation.getArgument(0)))
+            .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        when(redisTemplate.hasKey(anyString())).thenAnswer(invocation -> redisKeys.contains(invocation.<String>getArgument(0)));
+        TokenDenylist tokenDenylist = new TokenDenylist(redisTemplate, new SimpleMeterRegistry(),
+            Duration.ofHours(24), Duration.ofMinutes(10), 1000, 0.001, 1, Duration.ofSeconds(1));
+
+        ValidatedToken validated = ValidatedToken.builder()
+            .tokenType(ValidatedToken.TokenType.AUTH0)
+            .tokenId(TOKEN_ID)
+            .subject(AUTH0_ID)
+            .issuedAt(Instant.now().truncatedTo(ChronoUnit.SECONDS))
+            .expiresAt(Instant.now().plusSeconds(600))
+            .build();
+        jwtService = mock(JwtService.class);
+        when(jwtService.validate(SUBJECT_TOKEN)).thenReturn(Optional.of(validated));
+        when(jwtService.validateAny(SUBJECT_TOKEN)).thenReturn(Optional.of(validated));
+
+        User user = User.builder().auth0Id(AUTH0_ID).email("aluno@distrischool.test").build();
+        user.setId(1L);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByAuth0Id(AUTH0_ID)).thenReturn(Optional.of(user));
+
+        EnhancedJwtService enhancedJwtService = mock(EnhancedJwtService.class);
+        when(enhancedJwtService.generateEnhancedToken(eq(SUBJECT_TOKEN), any(User.class)))
+            .thenAnswer(invocation -> JWT.create()
+                .withSubject(AUTH0_ID)
+                .withExpiresAt(Instant.now().plusSeconds(600))
+                .sign(Algorithm.HMAC256("segredo-de-teste")));
+
+        AuthzEpochIndex authzEpochIndex = new AuthzEpochIndex(userRepository, new SimpleMeterRegistry(), Duration.ofMinutes(5));
+        tokenExchangeService = new TokenExchangeService(jwtService, userRepository, enhancedJwtService,
+            authzEpochIndex, tokenDenylist, new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10));
+
+        authService = new AuthService(userRepository, null, null, null, null, null, null, jwtService, tokenDenylist,
+            mock(Auth0EventProducer.class), mock(AuthMetricsRecorder.class), null, null);
+    }
+
+    @Test
+    void exchangeAfterLogoutIsInvalidGrant() {
+        authService.logout(SUBJECT_TOKEN, AUTH0_ID);
+
+        TokenExchangeException error = assertThrows(TokenExchangeException.class, this::exchange);
+        assertEquals(TokenExchangeException.INVALID_GRANT, error.getError());
+    }
+
+    @Test
+    void cachedExchangeIsNotReturnedAfterLogout() {
+        assertNotNull(exchange().getAccessToken());
+
+        authService.logout(SUBJECT_TOKEN, AUTH0_ID);
+
+        TokenExchangeException error = assertThrows(TokenExchangeException.class, this::exchange);
+        assertEquals(TokenExchangeException.INVALID_GRANT, error.getError());
+    }
+
+    private TokenExchangeResponse exchange() {
+        return tokenExchangeService.exchange(TokenExchangeService.GRANT_TYPE, SUBJECT_TOKEN,
+            TokenExchangeService.ACCESS_TOKEN_TYPE, null);
+    }
+}